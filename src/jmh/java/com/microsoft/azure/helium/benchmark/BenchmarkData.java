@@ -0,0 +1,58 @@
+package com.microsoft.azure.helium.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.movie.Movie;
+
+/**
+ * BenchmarkData
+ *
+ * Documents shaped like the imdb sample data: movies carry their genres and
+ * a cast of actors, and actors carry the movies they are known for.
+ */
+final class BenchmarkData {
+
+    static final List<String> GENRES = Arrays.asList("Action", "Adventure", "Animation", "Biography", "Comedy",
+            "Crime", "Documentary", "Drama", "Family", "Fantasy", "History", "Horror", "Music", "Musical", "Mystery",
+            "Romance", "Sci-Fi", "Sport", "Thriller", "War", "Western");
+
+    private static final int ROLES_PER_MOVIE = 10;
+    private static final int MOVIES_PER_ACTOR = 4;
+
+    private BenchmarkData() {
+    }
+
+    static Movie movie(int n) {
+        List<Actor> roles = new ArrayList<>();
+        for (int i = 0; i < ROLES_PER_MOVIE; i++) {
+            roles.add(actor(n * ROLES_PER_MOVIE + i, new ArrayList<>()));
+        }
+        return movie(n, roles);
+    }
+
+    static Actor actor(int n) {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < MOVIES_PER_ACTOR; i++) {
+            movies.add(movie(n * MOVIES_PER_ACTOR + i, new ArrayList<>()));
+        }
+        return actor(n, movies);
+    }
+
+    private static Movie movie(int n, List<Actor> roles) {
+        String id = String.format("tt%07d", n);
+        String title = "The Benchmark Movie Part " + n;
+        List<String> genres = Arrays.asList(GENRES.get(n % GENRES.size()), GENRES.get((n + 7) % GENRES.size()));
+        return new Movie(id, id, title.toLowerCase(), title, "Movie", String.valueOf(n % 10), 1990 + n % 30,
+                5.0f + n % 50 / 10.0f, 1000 + n * 17, genres, roles, null);
+    }
+
+    private static Actor actor(int n, List<Movie> movies) {
+        String id = String.format("nm%07d", n);
+        String name = "Benchmark Actor " + n;
+        return new Actor(id, id, name.toLowerCase(), name, "Actor", String.valueOf(n % 10), 1940 + n % 60,
+                Arrays.asList("actor", "producer"), movies, null);
+    }
+}
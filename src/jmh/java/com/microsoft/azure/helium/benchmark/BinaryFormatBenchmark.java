@@ -0,0 +1,95 @@
+package com.microsoft.azure.helium.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.microsoft.azure.helium.app.movie.Movie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * BinaryFormatBenchmark
+ *
+ * Encodes and decodes a page of movies as JSON, CBOR and Smile, the formats the
+ * API negotiates with the Accept header. The encoded size of each format is
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "1", "100" })
+    private int movieCount;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+
+    private List<Movie> movies;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws Exception {
+        // as configured by BinaryFormatConfig
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Movie.class));
+        reader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Movie.class));
+
+        movies = new ArrayList<>(movieCount);
+        for (int n = 0; n < movieCount; n++) {
+            movies.add(BenchmarkData.movie(n));
+        }
+        encoded = writer.writeValueAsBytes(movies);
+        System.out.printf("%n%d movies as %s: %d bytes%n", movieCount, format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encodeMovies() throws Exception {
+        return writer.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public List<Movie> decodeMovies() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.microsoft.azure.helium.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.movie.Movie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * SerializationBenchmark
+ *
+ * Jackson round trips of the entities, using the mapper Spring Boot configures
+ * for the HTTP message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectWriter movieWriter;
+    private ObjectWriter actorWriter;
+    private ObjectReader movieReader;
+    private ObjectReader actorReader;
+
+    private Movie movie;
+    private Actor actor;
+    private byte[] movieJson;
+    private byte[] actorJson;
+
+    @Setup
+    public void setup() throws Exception {
+        // as configured by JacksonAutoConfiguration
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                .build();
+        movieWriter = mapper.writerFor(Movie.class);
+        actorWriter = mapper.writerFor(Actor.class);
+        movieReader = mapper.readerFor(Movie.class);
+        actorReader = mapper.readerFor(Actor.class);
+
+        movie = BenchmarkData.movie(1);
+        actor = BenchmarkData.actor(1);
+        movieJson = movieWriter.writeValueAsBytes(movie);
+        actorJson = actorWriter.writeValueAsBytes(actor);
+    }
+
+    @Benchmark
+    public byte[] serializeMovie() throws Exception {
+        return movieWriter.writeValueAsBytes(movie);
+    }
+
+    @Benchmark
+    public byte[] serializeActor() throws Exception {
+        return actorWriter.writeValueAsBytes(actor);
+    }
+
+    @Benchmark
+    public Movie deserializeMovie() throws Exception {
+        return movieReader.readValue(movieJson);
+    }
+
+    @Benchmark
+    public Actor deserializeActor() throws Exception {
+        return actorReader.readValue(actorJson);
+    }
+}
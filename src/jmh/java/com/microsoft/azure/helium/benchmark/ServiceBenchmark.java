@@ -0,0 +1,97 @@
+package com.microsoft.azure.helium.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsRepository;
+import com.microsoft.azure.helium.app.actor.ActorsService;
+import com.microsoft.azure.helium.app.genre.Genre;
+import com.microsoft.azure.helium.app.genre.GenresRepository;
+import com.microsoft.azure.helium.app.genre.GenresService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * ServiceBenchmark
+ *
+ * Service logic on top of in-process repositories, so only the work done by
+ * the application is measured: mapping the genre documents to names, and
+ * normalizing a text search and answering it from the warm search index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int actorCount;
+
+    @Param({ "Benchmark Actor 42", "actor 99" })
+    private String query;
+
+    private GenresService genresService;
+    private ActorsService actorsService;
+
+    @Setup
+    public void setup() {
+        List<Genre> genres = BenchmarkData.GENRES.stream()
+                .map(name -> new Genre(name.toLowerCase(), "0", "Genre", name))
+                .collect(Collectors.toList());
+        genresService = new GenresService();
+        ReflectionTestUtils.setField(genresService, "repository", repository(GenresRepository.class, genres));
+
+        List<Actor> actors = new ArrayList<>();
+        for (int i = 0; i < actorCount; i++) {
+            actors.add(BenchmarkData.actor(i));
+        }
+        actorsService = new ActorsService();
+        ReflectionTestUtils.setField(actorsService, "repository", repository(ActorsRepository.class, actors));
+        ReflectionTestUtils.setField(actorsService, "searchIndexEnabled", true);
+        actorsService.refreshSearchIndex();
+    }
+
+    @Benchmark
+    public List<String> getAllGenres() {
+        return genresService.getAllGenres();
+    }
+
+    @Benchmark
+    public List<Actor> searchActors() {
+        return actorsService.getAllActors(Optional.of(query));
+    }
+
+    /**
+     * Returns a repository whose findAll answers with the given documents.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, List<?> documents) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                return documents;
+            }
+            if (method.getName().equals("toString")) {
+                return type.getSimpleName();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package com.microsoft.azure.helium.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import com.microsoft.azure.helium.Application;
+import com.microsoft.azure.helium.config.InMemoryRepositoryConfig;
+
+import org.HdrHistogram.Histogram;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * ApiLoadIT
+ *
+ * Drives the API over HTTP against the in-memory repositories, first at each of
+ * the fixed rates (which must meet the p99 objective) and then at increasing
+ * rates until the server saturates. Percentile distributions of every run are
+ * written to target/loadtest as .hgrm files alongside a summary.
+ *
+ * mvn -P loadtest verify [-Dloadtest.rates=100,200,400 -Dloadtest.duration=30000 ...]
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "helium.inmemory.latency=${loadtest.db-latency:5}",
+        "helium.inmemory.latency-jitter=${loadtest.db-latency-jitter:5}",
+        "logging.level.root=WARN" })
+@ActiveProfiles(InMemoryRepositoryConfig.PROFILE)
+public class ApiLoadIT {
+
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+    private static final String[] PERCENTILE_NAMES = { "p50", "p99", "p999" };
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${loadtest.rates:100,200,400}")
+    private int[] rates;
+
+    @Value("${loadtest.warmup:10000}")
+    private long warmup;
+
+    @Value("${loadtest.duration:30000}")
+    private long duration;
+
+    @Value("${loadtest.connections:64}")
+    private int connections;
+
+    @Value("${loadtest.slo-p99:250}")
+    private double sloP99;
+
+    @Value("${loadtest.saturation.start:100}")
+    private int saturationStart;
+
+    @Value("${loadtest.saturation.max:50000}")
+    private int saturationMax;
+
+    private LoadRun load;
+    private Path reports;
+
+    @Before
+    public void setupLoad() throws IOException {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create()
+                .setMaxConnTotal(connections)
+                .setMaxConnPerRoute(connections)
+                .build());
+        RestTemplate client = new RestTemplate(requestFactory);
+        client.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                // failed requests are counted, not thrown
+                return false;
+            }
+        });
+        load = new LoadRun(client, RequestMix.api("http://localhost:" + port), connections);
+        reports = Files.createDirectories(Paths.get("target", "loadtest"));
+    }
+
+    @Test
+    public void fixedRatesShouldMeetTheLatencyObjective() throws Exception {
+        // Arrange
+        load.run(rates[0], warmup);
+
+        for (int rate : rates) {
+            // Act
+            LoadRun.Result result = load.run(rate, duration);
+            report("fixed", result);
+
+            // Assert
+            assertEquals("failed requests at " + rate + " req/s", 0, result.errors.sum());
+            assertTrue("p99 at " + rate + " req/s above " + sloP99 + " ms", result.percentileMillis(result.all, 99) <= sloP99);
+        }
+    }
+
+    @Test
+    public void reportThroughputAtSaturation() throws Exception {
+        // Arrange
+        load.run(saturationStart, warmup);
+        LoadRun.Result sustained = null;
+        LoadRun.Result saturated = null;
+
+        // Act
+        for (int rate = saturationStart; rate <= saturationMax && saturated == null; rate = rate * 3 / 2) {
+            LoadRun.Result result = load.run(rate, duration);
+            report("saturation", result);
+            if (isSaturated(result)) {
+                saturated = result;
+            } else {
+                sustained = result;
+            }
+        }
+
+        // Assert: reported rather than asserted, the figures depend on the machine
+        if (saturated != null) {
+            summary(String.format("throughput at saturation: %.0f req/s (offered %d req/s)", saturated.throughput(), saturated.rate));
+        } else {
+            summary(String.format("not saturated at %d req/s", saturationMax));
+        }
+        if (sustained != null) {
+            summary(String.format("highest sustained rate: %d req/s (p99 %.2f ms)", sustained.rate, sustained.percentileMillis(sustained.all, 99)));
+        }
+    }
+
+    private boolean isSaturated(LoadRun.Result result) {
+        return result.throughput() < result.rate * 0.95
+                || result.errors.sum() > result.all.getTotalCount() / 1000
+                || result.percentileMillis(result.all, 99) > sloP99;
+    }
+
+    private void report(String run, LoadRun.Result result) throws IOException {
+        StringBuilder line = new StringBuilder(String.format("%s %d req/s: %.0f req/s achieved, %d errors",
+                run, result.rate, result.throughput(), result.errors.sum()));
+        append(line, "all", result.all, result);
+        for (Map.Entry<String, Histogram> operation : result.byOperation.entrySet()) {
+            append(line, operation.getKey(), operation.getValue(), result);
+        }
+        summary(line.toString());
+
+        // latencies are recorded in microseconds, the distribution is in milliseconds
+        try (PrintStream out = new PrintStream(new FileOutputStream(reports.resolve(run + "-" + result.rate + ".hgrm").toFile()))) {
+            result.all.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private void append(StringBuilder line, String name, Histogram histogram, LoadRun.Result result) {
+        line.append(String.format("%n  %-14s n=%-8d", name, histogram.getTotalCount()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            line.append(String.format(" %s=%.2fms", PERCENTILE_NAMES[i], result.percentileMillis(histogram, PERCENTILES[i])));
+        }
+        line.append(String.format(" max=%.2fms", histogram.getMaxValue() / 1000.0));
+    }
+
+    private void summary(String text) throws IOException {
+        System.out.println(text);
+        Files.write(reports.resolve("summary.txt"), (text + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,103 @@
+package com.microsoft.azure.helium.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * LoadRun
+ *
+ * Sends requests at a fixed rate for a fixed time, whether or not earlier
+ * requests have completed (an open workload, like real clients). Latency is
+ * measured from the time a request was due rather than the time it was sent,
+ * so queueing in the client counts against the server as it would in
+ * production instead of hiding a stall (coordinated omission).
+ */
+final class LoadRun {
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final RestTemplate client;
+    private final RequestMix mix;
+    private final int connections;
+
+    LoadRun(RestTemplate client, RequestMix mix, int connections) {
+        this.client = client;
+        this.mix = mix;
+        this.connections = connections;
+    }
+
+    Result run(int rate, long durationMillis) throws InterruptedException {
+        Result result = new Result(rate, mix);
+        ExecutorService workers = Executors.newFixedThreadPool(connections);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        try {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long dueAt = due;
+                RequestMix.Operation operation = mix.next();
+                workers.execute(() -> result.record(operation, dueAt, send(operation)));
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private boolean send(RequestMix.Operation operation) {
+        try {
+            return !client.exchange(operation.request.get(), byte[].class).getStatusCode().isError();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    static final class Result {
+
+        final int rate;
+        final Histogram all = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        final Map<String, Histogram> byOperation = new LinkedHashMap<>();
+        final LongAdder errors = new LongAdder();
+        long elapsedNanos;
+
+        private Result(int rate, RequestMix mix) {
+            this.rate = rate;
+            for (RequestMix.Operation operation : mix.operations()) {
+                byOperation.put(operation.name, new ConcurrentHistogram(HIGHEST_LATENCY, 3));
+            }
+        }
+
+        private void record(RequestMix.Operation operation, long due, boolean succeeded) {
+            long latency = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due), HIGHEST_LATENCY);
+            all.recordValue(latency);
+            byOperation.get(operation.name).recordValue(latency);
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+
+        double throughput() {
+            return all.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        double percentileMillis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.microsoft.azure.helium.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+
+/**
+ * RequestMix
+ *
+ * Weighted mix of API calls. Each request of a run picks one operation at
+ * random in proportion to its weight.
+ */
+final class RequestMix {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    RequestMix add(String name, int weight, Supplier<RequestEntity<?>> request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    List<Operation> operations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight;
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("empty request mix");
+    }
+
+    /**
+     * Point reads, searches and writes against the ids and titles of the
+     * in-memory sample dataset, with probes mixed in as an orchestrator would.
+     */
+    static RequestMix api(String baseUrl) {
+        String[] actorIds = { "nm0000206", "nm0000401", "nm0005251", "nm0000138", "nm0330687", "nm0000237", "nm0000235" };
+        String[] movieIds = { "tt0133093", "tt0234215", "tt1375666", "tt0110912", "tt0102926" };
+        String[] queries = { "matrix", "keanu", "the", "in", "fiction" };
+        AtomicLong written = new AtomicLong();
+
+        return new RequestMix()
+                .add("getActor", 30, () -> RequestEntity.get(url(baseUrl, "/api/actors/" + pick(actorIds))).build())
+                .add("getMovie", 30, () -> RequestEntity.get(url(baseUrl, "/api/movies/" + pick(movieIds))).build())
+                .add("searchActors", 10, () -> RequestEntity.get(url(baseUrl, "/api/actors?q=" + pick(queries))).build())
+                .add("searchMovies", 10, () -> RequestEntity.get(url(baseUrl, "/api/movies/?q=" + pick(queries))).build())
+                .add("getGenres", 10, () -> RequestEntity.get(url(baseUrl, "/api/genres")).build())
+                .add("healthz", 5, () -> RequestEntity.get(url(baseUrl, "/healthz")).build())
+                .add("createActor", 5, () -> {
+                    String id = "nm9" + String.format("%06d", written.incrementAndGet() % 1000000);
+                    String actor = String.format("{\"id\":\"%1$s\",\"actorId\":\"%1$s\",\"textSearch\":\"load test %1$s\","
+                            + "\"name\":\"Load Test %1$s\",\"type\":\"Actor\",\"key\":\"0\",\"birthYear\":1970,"
+                            + "\"profession\":[\"actor\"],\"movies\":[]}", id);
+                    return RequestEntity.post(url(baseUrl, "/api/actors")).contentType(MediaType.APPLICATION_JSON).body(actor);
+                });
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static URI url(String baseUrl, String path) {
+        return java.net.URI.create(baseUrl + path);
+    }
+
+    static final class Operation {
+
+        final String name;
+        final int weight;
+        final Supplier<RequestEntity<?>> request;
+
+        private Operation(String name, int weight, Supplier<RequestEntity<?>> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.microsoft.azure.helium.app;
+
+/**
+ * BinaryFormats
+ *
+ * Binary encodings of the JSON data model that callers can ask for with the
+ * Accept header instead of JSON. Both keep the JSON structure but write numbers
+ * in binary and repeated field names as back references, so float-heavy
+ * documents are smaller and cheaper to encode and decode.
+ */
+public final class BinaryFormats {
+
+    public static final String CBOR_VALUE = "application/cbor";
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private BinaryFormats() {
+    }
+}
@@ -8,4 +8,13 @@ public final class Constants {
     public static final String DEFAULT_GENRE_COLLECTION_NAME = "genres";
     public static final String DEFAULT_ACTOR_COLLECTION_NAME = "actors";
     public static final String DEFAULT_MOVIE_COLLECTION_NAME = "movies";
+
+    public static final String ACTOR_CACHE_NAME = "actors";
+    public static final String MOVIE_CACHE_NAME = "movies";
+
+    public static final String CONTINUATION_HEADER = "X-Continuation";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int EXPAND_BATCH_SIZE = 100;
+    public static final int DEFAULT_TOP_LIMIT = 10;
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.microsoft.azure.helium.app;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+/**
+ * ETags
+ *
+ * Validators for conditional GETs. Responses tagged here are answered with 304
+ * by Spring MVC when If-None-Match matches, before the body is serialized.
+ * Documents are tagged from the _etag Cosmos DB assigns on every write, so no
+ * validator requires serializing the response first. The tags are weak: the
+ * JSON, CBOR and Smile encodings of the same content share one, so it vouches
+ * for the content rather than for the bytes of any one encoding.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Returns the ETag of the content, e.g. its JSON serialization.
+     */
+    public static String of(byte[] content) {
+        return weak(DigestUtils.md5DigestAsHex(content));
+    }
+
+    /**
+     * Returns the response with an ETag computed from the _etag values of the
+     * documents it was built from, e.g. one document, a list or a projection of
+     * them, and from its continuation header. The qualifiers tell apart different
+     * representations of the same documents. The response is returned untagged if
+     * a document has no _etag, e.g. because it was never written to Cosmos DB.
+     */
+    public static <T, D> ResponseEntity<T> tag(ResponseEntity<T> response, List<D> documents, Function<D, String> etag, String... qualifiers) {
+        StringBuilder content = new StringBuilder();
+        for (D document : documents) {
+            String value = etag.apply(document);
+            if (value == null) {
+                return response;
+            }
+            content.append(value).append(',');
+        }
+        content.append(';').append(response.getHeaders().getFirst(Constants.CONTINUATION_HEADER));
+        for (String qualifier : qualifiers) {
+            content.append(';').append(qualifier);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.setETag(of(content.toString().getBytes(StandardCharsets.UTF_8)));
+        headers.setVary(Collections.singletonList(HttpHeaders.ACCEPT));
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    private static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+}
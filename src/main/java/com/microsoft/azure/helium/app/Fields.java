@@ -0,0 +1,106 @@
+package com.microsoft.azure.helium.app;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.util.StringUtils;
+
+/**
+ * Fields
+ *
+ * Sparse fieldset requested with ?fields=id,title,rating. Only the named fields
+ * are read from Cosmos DB and serialized, so list views do not pay for the
+ * nested actor and movie graphs they do not show.
+ */
+public final class Fields {
+
+    private final List<String> names;
+
+    private Fields(List<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated list of top-level fields of the entity type. Returns
+     * an empty Optional if the list is empty or names a field the type does not have
+     * or never serializes.
+     */
+    public static Optional<Fields> parse(String value, Class<?> type) {
+        Set<String> known = Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !isWriteOnly(field))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : StringUtils.commaDelimitedListToStringArray(value)) {
+            String trimmed = name.trim();
+            if (!known.contains(trimmed)) {
+                return Optional.empty();
+            }
+            names.add(trimmed);
+        }
+        if (names.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Fields(Collections.unmodifiableList(new ArrayList<>(names))));
+    }
+
+    private static boolean isWriteOnly(Field field) {
+        JsonProperty property = field.getAnnotation(JsonProperty.class);
+        return property != null && property.access() == JsonProperty.Access.WRITE_ONLY;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the SELECT list for a Cosmos DB query on the given alias. The names
+     * are field names of the entity, so they are safe to inline.
+     */
+    public String select(String alias) {
+        return names.stream().map(name -> alias + "." + name).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the requested fields of an entity that is already in memory.
+     */
+    public Map<String, Object> project(Object entity) {
+        DirectFieldAccessor accessor = new DirectFieldAccessor(entity);
+        Map<String, Object> projection = new LinkedHashMap<>();
+        for (String name : names) {
+            projection.put(name, accessor.getPropertyValue(name));
+        }
+        return projection;
+    }
+
+    public List<Map<String, Object>> projectAll(List<?> entities) {
+        return entities.stream().map(this::project).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the requested fields of a projected document in the requested
+     * order, leaving out the fields the document does not have.
+     */
+    public Map<String, Object> retain(Map<String, Object> document) {
+        Map<String, Object> projection = new LinkedHashMap<>();
+        for (String name : names) {
+            if (document.containsKey(name)) {
+                projection.put(name, document.get(name));
+            }
+        }
+        return projection;
+    }
+}
@@ -0,0 +1,53 @@
+package com.microsoft.azure.helium.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * NdJson
+ *
+ * Newline-delimited JSON: one document per line, written as soon as the page
+ * containing it is available instead of after the whole result is loaded.
+ */
+public final class NdJson {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-ndjson";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    private NdJson() {
+    }
+
+    /**
+     * Returns a body that asks the source for its pages and writes each one to the
+     * response, flushing after every page.
+     */
+    public static <T> StreamingResponseBody stream(ObjectMapper mapper, Consumer<Consumer<List<T>>> source) {
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                source.accept(page -> {
+                    try {
+                        for (T item : page) {
+                            writer.writeValue(generator, item);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+    }
+}
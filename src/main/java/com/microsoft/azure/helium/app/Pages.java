@@ -0,0 +1,79 @@
+package com.microsoft.azure.helium.app;
+
+import java.util.List;
+
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Pages
+ *
+ * Helpers for continuation-token paging. Cosmos DB pages carry the token of the
+ * next page in their DocumentDbPageRequest; pages sliced from in-memory results
+ * use the offset of the next item as their token instead.
+ */
+public final class Pages {
+
+    private Pages() {
+    }
+
+    public static DocumentDbPageRequest request(int pageSize, String continuation) {
+        return DocumentDbPageRequest.of(0, pageSize, continuation);
+    }
+
+    /**
+     * Returns the token of the page after the given one, or null if it is the last page.
+     */
+    public static String nextContinuation(Page<?> page) {
+        Pageable pageable = page.getPageable();
+        if (pageable instanceof DocumentDbPageRequest) {
+            return ((DocumentDbPageRequest) pageable).getRequestContinuation();
+        }
+        return null;
+    }
+
+    /**
+     * True if the token was produced by {@link #slice} rather than by Cosmos DB.
+     */
+    public static boolean isOffset(String continuation) {
+        return continuation == null || continuation.matches("\\d{1,9}");
+    }
+
+    public static boolean isValidPageSize(int pageSize) {
+        return pageSize >= 1 && pageSize <= Constants.MAX_PAGE_SIZE;
+    }
+
+    /**
+     * Returns the page content with the token of the next page in the continuation header.
+     */
+    public static <T> ResponseEntity<List<T>> response(Page<T> page) {
+        return response(page, page.getContent());
+    }
+
+    /**
+     * Returns the given content, e.g. the page content in another shape, with the
+     * token of the page after the given one in the continuation header.
+     */
+    public static <T> ResponseEntity<List<T>> response(Page<?> page, List<T> content) {
+        HttpHeaders headers = new HttpHeaders();
+        String next = nextContinuation(page);
+        if (next != null) {
+            headers.set(Constants.CONTINUATION_HEADER, next);
+        }
+        return new ResponseEntity<>(content, headers, HttpStatus.OK);
+    }
+
+    public static <T> Page<T> slice(List<T> items, DocumentDbPageRequest pageable) {
+        int offset = pageable.getRequestContinuation() == null ? 0 : Integer.parseInt(pageable.getRequestContinuation());
+        int from = Math.min(offset, items.size());
+        int to = Math.min(from + pageable.getPageSize(), items.size());
+        String next = to < items.size() ? String.valueOf(to) : null;
+        return new PageImpl<>(items.subList(from, to), request(pageable.getPageSize(), next), items.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.microsoft.azure.helium.app;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PartitionKeys
+ *
+ * Movies and actors are stored with their IMDb ID (tt0133093, nm0000206) as the
+ * document ID and the numeric part of that ID modulo 10 as the partition key.
+ */
+public final class PartitionKeys {
+
+    private static final Pattern IMDB_ID = Pattern.compile("^(?:tt|nm)(\\d{1,9})$");
+    private static final int PARTITIONS = 10;
+
+    private PartitionKeys() {
+    }
+
+    /**
+     * Returns the partition key for the given ID, or an empty Optional if the ID does
+     * not follow the IMDb format and the partition cannot be derived.
+     */
+    public static Optional<String> fromId(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = IMDB_ID.matcher(id);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(String.valueOf(Integer.parseInt(matcher.group(1)) % PARTITIONS));
+    }
+}
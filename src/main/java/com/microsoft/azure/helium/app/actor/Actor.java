@@ -2,6 +2,7 @@ package com.microsoft.azure.helium.app.actor;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.microsoft.azure.helium.app.Constants;
 import com.microsoft.azure.helium.app.movie.Movie;
 
@@ -33,4 +34,7 @@ public class Actor {
     private int birthYear;
     private List<String> profession;
     private List<Movie> movies;
+    // assigned by Cosmos DB on every write; only deserialized, so it is neither stored nor returned
+    @JsonProperty(value = "_etag", access = JsonProperty.Access.WRITE_ONLY)
+    private String etag;
 }
\ No newline at end of file
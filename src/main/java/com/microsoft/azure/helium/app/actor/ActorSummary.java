@@ -0,0 +1,42 @@
+package com.microsoft.azure.helium.app.actor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.microsoft.azure.helium.app.movie.MovieSummary;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * ActorSummary
+ *
+ * List representation of an actor. The movies embedded in the actor document
+ * are left out unless they are asked for with ?expand=movies.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ActorSummary {
+    private String id;
+    private String actorId;
+    private String name;
+    private int birthYear;
+    private List<String> profession;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<MovieSummary> movies;
+
+    public static ActorSummary of(Actor actor) {
+        return new ActorSummary(actor.getId(), actor.getActorId(), actor.getName(), actor.getBirthYear(), actor.getProfession(), null);
+    }
+
+    public static List<ActorSummary> of(List<Actor> actors) {
+        return actors.stream().map(ActorSummary::of).collect(Collectors.toList());
+    }
+
+    public ActorSummary withMovies(List<MovieSummary> movies) {
+        return new ActorSummary(id, actorId, name, birthYear, profession, movies);
+    }
+}
@@ -1,9 +1,25 @@
 package com.microsoft.azure.helium.app.actor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.helium.app.BinaryFormats;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.ETags;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.NdJson;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.bulk.BulkReport;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -25,20 +42,60 @@ import io.swagger.annotations.ApiResponse;
  * ActorController
  */
 @RestController
-@RequestMapping(path = "/api/actors", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api/actors", produces = { MediaType.APPLICATION_JSON_VALUE, BinaryFormats.CBOR_VALUE, BinaryFormats.SMILE_VALUE })
 @Api(tags = "Actors")
 public class ActorsController {
 
+    private static final String EXPAND_MOVIES = "movies";
+
     @Autowired
     private ActorsService service;
 
+    @Autowired
+    private ObjectMapper mapper;
+
     @RequestMapping(value = "", method = RequestMethod.GET)
     @ApiOperation(value = "Get all actors", notes = "Retrieve and return all actors")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "List of actor objects") })
-    public ResponseEntity<List<Actor>> getAllActors(
-            @ApiParam(value = "The actor name to filter by", required = false) @RequestParam("q") final Optional<String> query) {
-        List<Actor> actors = service.getAllActors(query);
-        return new ResponseEntity<>(actors, HttpStatus.OK);
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of actor summaries"),
+            @ApiResponse(code = 400, message = "The page size or expansion is invalid") })
+    public ResponseEntity<List<ActorSummary>> getAllActors(
+            @ApiParam(value = "The actor name to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "The maximum number of actors to return", required = false) @RequestParam("pageSize") final Optional<Integer> pageSize,
+            @ApiParam(value = "The continuation token returned with the previous page", required = false) @RequestParam("continuation") final Optional<String> continuation,
+            @ApiParam(value = "Set to movies to include the movies of each actor", required = false) @RequestParam("expand") final Optional<String> expand) {
+        if (expand.isPresent() && !EXPAND_MOVIES.equals(expand.get())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        if (!pageSize.isPresent() && !continuation.isPresent()) {
+            List<Actor> actors = service.getAllActors(query);
+            return tag(new ResponseEntity<>(summarize(actors, expand), HttpStatus.OK), actors, expand);
+        }
+
+        int size = pageSize.orElse(Constants.DEFAULT_PAGE_SIZE);
+        if (!Pages.isValidPageSize(size)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        Page<Actor> page = service.getActors(query, size, continuation);
+        return tag(Pages.response(page, summarize(page.getContent(), expand)), page.getContent(), expand);
+    }
+
+    @RequestMapping(value = "", method = RequestMethod.GET, produces = NdJson.MEDIA_TYPE_VALUE)
+    @ApiOperation(value = "Stream all actors", notes = "Stream all actors as newline-delimited JSON while they are read")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One actor summary per line"),
+            @ApiResponse(code = 400, message = "The expansion is invalid") })
+    public ResponseEntity<StreamingResponseBody> streamActors(
+            @ApiParam(value = "The actor name to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "Set to movies to include the movies of each actor", required = false) @RequestParam("expand") final Optional<String> expand) {
+        if (expand.isPresent() && !EXPAND_MOVIES.equals(expand.get())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = NdJson.<ActorSummary>stream(mapper, consumer -> service.forEachActorPage(query, page -> consumer.accept(summarize(page, expand))));
+        return ResponseEntity.ok().contentType(NdJson.MEDIA_TYPE).body(body);
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
@@ -49,7 +106,72 @@ public class ActorsController {
     public ResponseEntity<Actor> getActor(@ApiParam(value = "The ID of the actor to look for", required = true) @PathVariable("id") final String actorId) {
         Optional<Actor> actor = service.getActor(actorId);
         if (actor.isPresent()) {
-            return new ResponseEntity<>(actor.get(), HttpStatus.OK);
+            return ETags.tag(new ResponseEntity<>(actor.get(), HttpStatus.OK), Collections.singletonList(actor.get()), Actor::getEtag);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @RequestMapping(value = "", method = RequestMethod.GET, params = "fields")
+    @ApiOperation(value = "Get fields of all actors", notes = "Retrieve and return only the requested fields of all actors")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of partial actor objects"),
+            @ApiResponse(code = 400, message = "The page size is out of range, a field is unknown or expand is given") })
+    public ResponseEntity<List<Map<String, Object>>> getAllActorFields(
+            @ApiParam(value = "The comma-separated actor fields to return", required = true) @RequestParam("fields") final String fields,
+            @ApiParam(value = "The actor name to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "The maximum number of actors to return", required = false) @RequestParam("pageSize") final Optional<Integer> pageSize,
+            @ApiParam(value = "The continuation token returned with the previous page", required = false) @RequestParam("continuation") final Optional<String> continuation,
+            @ApiParam(value = "Not supported with fields; fields=movies returns the movies stored in each actor", required = false) @RequestParam("expand") final Optional<String> expand) {
+        Optional<Fields> selected = Fields.parse(fields, Actor.class);
+        int size = pageSize.orElse(Constants.DEFAULT_PAGE_SIZE);
+        if (!selected.isPresent() || !Pages.isValidPageSize(size) || expand.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        if (!pageSize.isPresent() && !continuation.isPresent()) {
+            return new ResponseEntity<>(service.getAllActors(query, selected.get()), HttpStatus.OK);
+        }
+        return Pages.response(service.getActors(query, selected.get(), size, continuation));
+    }
+
+    @RequestMapping(value = "", method = RequestMethod.GET, params = "fields", produces = NdJson.MEDIA_TYPE_VALUE)
+    @ApiOperation(value = "Stream fields of all actors", notes = "Stream only the requested fields of all actors as newline-delimited JSON while they are read")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One partial actor object per line"),
+            @ApiResponse(code = 400, message = "A field is unknown or expand is given") })
+    public ResponseEntity<StreamingResponseBody> streamActorFields(
+            @ApiParam(value = "The comma-separated actor fields to return", required = true) @RequestParam("fields") final String fields,
+            @ApiParam(value = "The actor name to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "Not supported with fields; fields=movies returns the movies stored in each actor", required = false) @RequestParam("expand") final Optional<String> expand) {
+        Optional<Fields> selected = Fields.parse(fields, Actor.class);
+        if (!selected.isPresent() || expand.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = NdJson.<Map<String, Object>>stream(mapper, consumer -> service.forEachActorPage(query, selected.get(), consumer));
+        return ResponseEntity.ok().contentType(NdJson.MEDIA_TYPE).body(body);
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET, params = "fields")
+    @ApiOperation(value = "Get fields of single actor", notes = "Retrieve and return only the requested fields of a single actor by actor ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The partial actor object"),
+            @ApiResponse(code = 400, message = "A field is unknown"),
+            @ApiResponse(code = 404, message = "An actor with the specified ID was not found") })
+    public ResponseEntity<Map<String, Object>> getActorFields(
+            @ApiParam(value = "The ID of the actor to look for", required = true) @PathVariable("id") final String actorId,
+            @ApiParam(value = "The comma-separated actor fields to return", required = true) @RequestParam("fields") final String fields) {
+        Optional<Fields> selected = Fields.parse(fields, Actor.class);
+        if (!selected.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // point reads return whole documents, so the projection is applied here
+        Optional<Actor> actor = service.getActor(actorId);
+        if (actor.isPresent()) {
+            return ETags.tag(new ResponseEntity<>(selected.get().project(actor.get()), HttpStatus.OK), Collections.singletonList(actor.get()), Actor::getEtag,
+                    selected.get().getNames().toString());
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -63,4 +185,28 @@ public class ActorsController {
         Actor savedActor = service.createActor(actor);
         return new ResponseEntity<>(savedActor, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @RequestMapping(value = "/bulk", method = RequestMethod.POST, consumes = { MediaType.APPLICATION_JSON_VALUE, NdJson.MEDIA_TYPE_VALUE })
+    @ApiOperation(value = "Create actors in bulk", notes = "Creates the actors of a JSON array or newline-delimited JSON stream and reports the outcome of each one")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The outcome of each actor"),
+            @ApiResponse(code = 400, message = "The body is not a JSON array or newline-delimited JSON") })
+    public ResponseEntity<BulkReport> createActors(final InputStream body) throws IOException {
+        MappingIterator<Actor> actors;
+        try {
+            actors = mapper.readerFor(Actor.class).readValues(body);
+        } catch (JsonProcessingException ex) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(service.createActors(actors), HttpStatus.OK);
+    }
+
+    private List<ActorSummary> summarize(List<Actor> actors, Optional<String> expand) {
+        return expand.isPresent() ? service.summarizeWithMovies(actors) : ActorSummary.of(actors);
+    }
+
+    private static <T> ResponseEntity<T> tag(ResponseEntity<T> response, List<Actor> actors, Optional<String> expand) {
+        // the expanded movies are separate documents with _etag values of their own
+        return expand.isPresent() ? response : ETags.tag(response, actors, Actor::getEtag);
+    }
+}
@@ -1,15 +1,15 @@
 package com.microsoft.azure.helium.app.actor;
 
-import java.util.List;
-
 import com.microsoft.azure.spring.data.cosmosdb.repository.DocumentDbRepository;
 
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ActorsRepository extends DocumentDbRepository<Actor, String> {
-     List<Actor> findByActorId(String actorId);
-     List<Actor> findByTextSearchContaining(String actorName);
-     //TODO: change to below when fixed: https://github.com/microsoft/spring-data-cosmosdb/issues/362
+public interface ActorsRepository extends DocumentDbRepository<Actor, String>, ActorsRepositoryCustom {
+    // saved by ActorsRepositoryImpl; declared here as both super-interfaces declare it
+    @Override
+    <S extends Actor> S save(S actor);
+
+     //TODO: change findByTextSearchContaining to below when fixed: https://github.com/microsoft/spring-data-cosmosdb/issues/362
      //List<Actor> findByTextSearchContainingIgnoreCase(String actorName);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.microsoft.azure.helium.app.actor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * ActorsRepositoryCustom
+ *
+ * Queries and writes of the actors collection. They override the Spring Data methods
+ * of the same name so that every page they read is charged to the request and a
+ * saved document comes back with the ETag Cosmos DB assigned it.
+ */
+public interface ActorsRepositoryCustom {
+    List<Actor> findAll();
+    Page<Actor> findAll(Pageable pageable);
+    List<Actor> findAllById(Iterable<String> ids);
+    List<Actor> findByActorId(String actorId);
+    List<Actor> findByTextSearchContaining(String actorName);
+    Page<Actor> findByTextSearchContaining(String actorName, Pageable pageable);
+    Optional<Actor> pointReadByActorId(String actorId);
+    <S extends Actor> S save(S actor);
+    List<Actor> saveBatch(String partitionKey, List<Actor> actors);
+    void forEachPage(int pageSize, Consumer<List<Actor>> consumer);
+    void forEachPageByTextSearchContaining(String actorName, int pageSize, Consumer<List<Actor>> consumer);
+    Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable);
+    Page<Map<String, Object>> selectByTextSearchContaining(String actorName, Fields fields, DocumentDbPageRequest pageable);
+    void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer);
+    void forEachPageByTextSearchContaining(String actorName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer);
+}
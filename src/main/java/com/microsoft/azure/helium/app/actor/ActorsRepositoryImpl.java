@@ -0,0 +1,131 @@
+package com.microsoft.azure.helium.app.actor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import com.microsoft.azure.documentdb.SqlParameter;
+import com.microsoft.azure.documentdb.SqlParameterCollection;
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.PartitionKeys;
+import com.microsoft.azure.helium.cosmos.DocumentQueries;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * ActorsRepositoryImpl
+ */
+public class ActorsRepositoryImpl implements ActorsRepositoryCustom {
+
+    @Autowired
+    private DocumentQueries queries;
+
+    @Override
+    public List<Actor> findAll() {
+        return queries.list(Actor.class, new SqlQuerySpec("SELECT * FROM ROOT r"));
+    }
+
+    @Override
+    public Page<Actor> findAll(Pageable pageable) {
+        return queries.page(Actor.class, new SqlQuerySpec("SELECT * FROM ROOT r"), pageable);
+    }
+
+    @Override
+    public List<Actor> findAllById(Iterable<String> ids) {
+        SqlParameterCollection parameters = new SqlParameterCollection();
+        StringJoiner in = new StringJoiner(", ", "SELECT * FROM ROOT r WHERE r.id IN (", ")");
+        for (String id : ids) {
+            String name = "@id" + parameters.size();
+            parameters.add(new SqlParameter(name, id));
+            in.add(name);
+        }
+        if (parameters.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return queries.list(Actor.class, new SqlQuerySpec(in.toString(), parameters));
+    }
+
+    @Override
+    public List<Actor> findByActorId(String actorId) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM ROOT r WHERE r.actorId = @actorId",
+                new SqlParameterCollection(new SqlParameter("@actorId", actorId)));
+        return queries.list(Actor.class, query);
+    }
+
+    @Override
+    public List<Actor> findByTextSearchContaining(String actorName) {
+        return queries.list(Actor.class, textSearchContaining(actorName));
+    }
+
+    @Override
+    public Page<Actor> findByTextSearchContaining(String actorName, Pageable pageable) {
+        return queries.page(Actor.class, textSearchContaining(actorName), pageable);
+    }
+
+    @Override
+    public Optional<Actor> pointReadByActorId(String actorId) {
+        // the document ID is the actor ID
+        return PartitionKeys.fromId(actorId).flatMap(key -> queries.pointRead(Actor.class, actorId, key));
+    }
+
+    @Override
+    public <S extends Actor> S save(S actor) {
+        // the stored copy carries the ETag Cosmos DB assigned; the input carries none
+        return queries.upsert(actor, actor.getKey());
+    }
+
+    @Override
+    public List<Actor> saveBatch(String partitionKey, List<Actor> actors) {
+        return queries.upsertAll(Actor.class, partitionKey, actors);
+    }
+
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<Actor>> consumer) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM ROOT r");
+        queries.forEachPage(Actor.class, query, pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String actorName, int pageSize, Consumer<List<Actor>> consumer) {
+        queries.forEachPage(Actor.class, textSearchContaining(actorName), pageSize, consumer);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r");
+        return queries.page(Actor.class, query, pageable, document -> fields.retain(document.getHashMap()));
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByTextSearchContaining(String actorName, Fields fields, DocumentDbPageRequest pageable) {
+        return queries.page(Actor.class, textSearchContaining(actorName, fields), pageable, document -> fields.retain(document.getHashMap()));
+    }
+
+    @Override
+    public void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r");
+        queries.forEachPage(Actor.class, query, pageSize, document -> fields.retain(document.getHashMap()), consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String actorName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        queries.forEachPage(Actor.class, textSearchContaining(actorName, fields), pageSize, document -> fields.retain(document.getHashMap()), consumer);
+    }
+
+    private static SqlQuerySpec textSearchContaining(String actorName) {
+        return new SqlQuerySpec("SELECT * FROM ROOT r WHERE CONTAINS(r.textSearch, @textSearch)",
+                new SqlParameterCollection(new SqlParameter("@textSearch", actorName)));
+    }
+
+    private static SqlQuerySpec textSearchContaining(String actorName, Fields fields) {
+        return new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r WHERE CONTAINS(r.textSearch, @textSearch)",
+                new SqlParameterCollection(new SqlParameter("@textSearch", actorName)));
+    }
+}
@@ -1,9 +1,37 @@
 package com.microsoft.azure.helium.app.actor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.RequestCoalescer;
+import com.microsoft.azure.helium.app.bulk.BulkReport;
+import com.microsoft.azure.helium.app.bulk.BulkWriter;
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.app.movie.MovieSummary;
+import com.microsoft.azure.helium.app.movie.MoviesRepository;
+import com.microsoft.azure.helium.app.search.NGramIndex;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -16,19 +44,129 @@ public class ActorsService {
     @Autowired
     private ActorsRepository repository;
 
+    @Autowired
+    private BulkWriter bulkWriter;
+
+    @Autowired
+    private MoviesRepository moviesRepository;
+
+    @Value("${helium.search.index.enabled:true}")
+    private boolean searchIndexEnabled;
+
+    private final NGramIndex<Actor> searchIndex = new NGramIndex<>(Actor::getActorId, Actor::getTextSearch);
+
+    // concurrent identical reads share one repository call
+    private final RequestCoalescer<String, Optional<Actor>> lookups = new RequestCoalescer<>();
+    private final RequestCoalescer<String, List<Actor>> searches = new RequestCoalescer<>();
+
     public List<Actor> getAllActors(Optional<String> query) {
         if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
-            return repository.findByTextSearchContaining(query.get().toLowerCase());
+            String text = query.get().toLowerCase();
+            return searchIndex.search(text).orElseGet(() -> searches.load(text, () -> repository.findByTextSearchContaining(text)));
+        } else {
+            // queries are never empty, so the empty key is free for the full list
+            return searches.load("", () -> repository.findAll());
+        }
+    }
+
+    public Page<Actor> getActors(Optional<String> query, int pageSize, Optional<String> continuation) {
+        return page(query, pageSize, continuation, Function.identity(), repository::findByTextSearchContaining, repository::findAll);
+    }
+
+    /**
+     * Returns a page of the matching actors with only the given fields. The
+     * projection is part of the Cosmos DB query, so the other fields are never read.
+     */
+    public Page<Map<String, Object>> getActors(Optional<String> query, Fields fields, int pageSize, Optional<String> continuation) {
+        return page(query, pageSize, continuation, fields::project,
+                (text, pageable) -> repository.selectByTextSearchContaining(text, fields, pageable),
+                pageable -> repository.selectAll(fields, pageable));
+    }
+
+    /**
+     * Returns all matching actors with only the given fields.
+     */
+    public List<Map<String, Object>> getAllActors(Optional<String> query, Fields fields) {
+        List<Map<String, Object>> actors = new ArrayList<>();
+        forEachActorPage(query, fields, actors::addAll);
+        return actors;
+    }
+
+    /**
+     * Hands the matching actors to the consumer one page at a time.
+     */
+    public void forEachActorPage(Optional<String> query, Consumer<List<Actor>> consumer) {
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            Optional<List<Actor>> indexed = searchIndex.search(text);
+            if (indexed.isPresent()) {
+                consumer.accept(indexed.get());
+            } else {
+                repository.forEachPageByTextSearchContaining(text, Constants.DEFAULT_PAGE_SIZE, consumer);
+            }
+        } else {
+            repository.forEachPage(Constants.DEFAULT_PAGE_SIZE, consumer);
+        }
+    }
+
+    /**
+     * Hands the matching actors to the consumer one page at a time, with only the given fields.
+     */
+    public void forEachActorPage(Optional<String> query, Fields fields, Consumer<List<Map<String, Object>>> consumer) {
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            Optional<List<Actor>> indexed = searchIndex.search(text);
+            if (indexed.isPresent()) {
+                consumer.accept(fields.projectAll(indexed.get()));
+            } else {
+                repository.forEachPageByTextSearchContaining(text, fields, Constants.DEFAULT_PAGE_SIZE, consumer);
+            }
         } else {
-            return (List<Actor>) repository.findAll();
+            repository.forEachPage(fields, Constants.DEFAULT_PAGE_SIZE, consumer);
+        }
+    }
+
+    /**
+     * Returns summaries of the actors with summaries of their movies. The movies are read
+     * in batches, one query per batch instead of one per movie; the copies embedded
+     * in the actor documents stand in for movies that are missing.
+     */
+    public List<ActorSummary> summarizeWithMovies(List<Actor> actors) {
+        List<String> movieIds = actors.stream()
+                .flatMap(actor -> actor.getMovies() == null ? Stream.<Movie>empty() : actor.getMovies().stream())
+                .map(Movie::getMovieId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, MovieSummary> movies = new HashMap<>();
+        for (int from = 0; from < movieIds.size(); from += Constants.EXPAND_BATCH_SIZE) {
+            List<String> batch = movieIds.subList(from, Math.min(from + Constants.EXPAND_BATCH_SIZE, movieIds.size()));
+            // the document ID is the movie ID
+            moviesRepository.findAllById(batch).forEach(movie -> movies.put(movie.getMovieId(), MovieSummary.of(movie)));
         }
+
+        return actors.stream()
+                .map(actor -> ActorSummary.of(actor).withMovies(actor.getMovies() == null ? Collections.emptyList() : actor.getMovies().stream()
+                        .map(movie -> movies.getOrDefault(movie.getMovieId(), MovieSummary.of(movie)))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = Constants.ACTOR_CACHE_NAME, unless = "#result == null")
     public Optional<Actor> getActor(String actorId) {
         if (StringUtils.isEmpty(actorId)) {
             throw new NullPointerException("actorId cannot be empty or null");
         }
 
+        return lookups.load(actorId, () -> readActor(actorId));
+    }
+
+    private Optional<Actor> readActor(String actorId) {
+        Optional<Actor> actor = repository.pointReadByActorId(actorId);
+        if (actor.isPresent()) {
+            return actor;
+        }
+
         List<Actor> actors = repository.findByActorId(actorId);
         if (actors.isEmpty()) {
             return Optional.empty();
@@ -37,11 +175,62 @@ public class ActorsService {
         }
     }
 
+    @CacheEvict(cacheNames = Constants.ACTOR_CACHE_NAME, key = "#actor.actorId")
     public Actor createActor(Actor actor) {
         if (actor.equals(null)) {
             throw new NullPointerException("actor cannot be null");
         }
 
-        return repository.save(actor);
+        Actor savedActor = repository.save(actor);
+        searchIndex.put(savedActor);
+        return savedActor;
+    }
+
+    /**
+     * Writes every actor of the stream and reports the outcome of each one.
+     */
+    @CacheEvict(cacheNames = Constants.ACTOR_CACHE_NAME, allEntries = true)
+    public BulkReport createActors(Iterator<Actor> actors) {
+        if (actors == null) {
+            throw new NullPointerException("actors cannot be null");
+        }
+
+        return bulkWriter.write(actors, Actor::getId, Actor::getKey, (key, batch) -> {
+            List<Actor> savedActors = repository.saveBatch(key, batch);
+            savedActors.forEach(searchIndex::put);
+            return savedActors;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${helium.search.index.refresh-interval:300000}")
+    public void refreshSearchIndex() {
+        if (searchIndexEnabled) {
+            searchIndex.rebuild(repository::findAll);
+        }
+    }
+
+    /**
+     * Pages through the search index while it is warm and its offset tokens
+     * apply, otherwise through Cosmos DB; view turns indexed actors into the
+     * shape the Cosmos DB queries return.
+     */
+    private <T> Page<T> page(Optional<String> query, int pageSize, Optional<String> continuation, Function<Actor, T> view,
+            BiFunction<String, DocumentDbPageRequest, Page<T>> search, Function<DocumentDbPageRequest, Page<T>> all) {
+        DocumentDbPageRequest pageable = Pages.request(pageSize, continuation.orElse(null));
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            if (Pages.isOffset(pageable.getRequestContinuation())) {
+                Optional<List<Actor>> indexed = searchIndex.search(text);
+                if (indexed.isPresent()) {
+                    return Pages.slice(indexed.get(), pageable).map(view);
+                } else if (pageable.getRequestContinuation() != null) {
+                    // offset token issued by a warm replica; Cosmos DB cannot resume from it
+                    return Pages.slice(repository.findByTextSearchContaining(text), pageable).map(view);
+                }
+            }
+            return search.apply(text, pageable);
+        } else {
+            return all.apply(pageable);
+        }
     }
-}
\ No newline at end of file
+}
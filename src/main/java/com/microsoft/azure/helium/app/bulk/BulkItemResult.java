@@ -0,0 +1,21 @@
+package com.microsoft.azure.helium.app.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * BulkItemResult
+ *
+ * Outcome of one document of a bulk request, identified by its position in the
+ * request body. The status follows HTTP semantics: 201 when the document was
+ * written, otherwise the status Cosmos DB failed with, or 400 for documents
+ * rejected before being sent.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkItemResult {
+    private int index;
+    private String id;
+    private int status;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.microsoft.azure.helium.app.bulk;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * BulkReport
+ */
+@Getter
+@AllArgsConstructor
+public class BulkReport {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> items;
+}
@@ -0,0 +1,151 @@
+package com.microsoft.azure.helium.app.bulk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.microsoft.azure.documentdb.DocumentClientException;
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * BulkWriter
+ *
+ * Writes a stream of documents with bounded concurrency. The stream is read one
+ * chunk at a time; each chunk is grouped by partition key and split into
+ * batches, and each batch is handed to the writer in one call, e.g. one stored
+ * procedure execution. The batches are written in parallel by a fixed pool
+ * shared by all bulk requests, so a large import never has more than a chunk in
+ * memory and never opens more than the configured number of concurrent writes.
+ * A batch that fails is written again one document at a time, so each document
+ * is reported with its own outcome.
+ */
+@Component
+public class BulkWriter {
+
+    @Value("${helium.bulk.concurrency:8}")
+    private int concurrency;
+
+    @Value("${helium.bulk.batch-size:100}")
+    private int batchSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void initialize() {
+        executor = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Writes every document of the stream and reports the outcome of each one.
+     * The writer is called with a partition key and documents that all have it.
+     * A document that cannot be parsed ends the stream; the documents before it
+     * are still written.
+     */
+    public <T> BulkReport write(Iterator<T> documents, Function<T, String> idExtractor,
+            Function<T, String> partitionKeyExtractor, BiFunction<String, List<T>, List<T>> writer) {
+        List<BulkItemResult> results = new ArrayList<>();
+        int index = 0;
+        boolean more = true;
+        while (more) {
+            List<T> chunk = new ArrayList<>();
+            try {
+                while (chunk.size() < concurrency * batchSize && documents.hasNext()) {
+                    chunk.add(documents.next());
+                }
+                more = documents.hasNext();
+            } catch (RuntimeException ex) {
+                more = false;
+                results.addAll(writeChunk(chunk, index, idExtractor, partitionKeyExtractor, writer));
+                results.add(new BulkItemResult(index + chunk.size(), null, HttpStatus.BAD_REQUEST.value(), ex.getMessage()));
+                break;
+            }
+            results.addAll(writeChunk(chunk, index, idExtractor, partitionKeyExtractor, writer));
+            index += chunk.size();
+        }
+
+        int succeeded = (int) results.stream().filter(r -> r.getStatus() == HttpStatus.CREATED.value()).count();
+        return new BulkReport(succeeded, results.size() - succeeded, results);
+    }
+
+    private <T> List<BulkItemResult> writeChunk(List<T> chunk, int offset, Function<T, String> idExtractor,
+            Function<T, String> partitionKeyExtractor, BiFunction<String, List<T>, List<T>> writer) {
+        BulkItemResult[] results = new BulkItemResult[chunk.size()];
+        Map<String, List<Integer>> partitions = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            T document = chunk.get(i);
+            String id = document == null ? null : idExtractor.apply(document);
+            if (StringUtils.isEmpty(id)) {
+                results[i] = new BulkItemResult(offset + i, id, HttpStatus.BAD_REQUEST.value(), "id cannot be empty or null");
+                continue;
+            }
+            partitions.computeIfAbsent(partitionKeyExtractor.apply(document), k -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        partitions.forEach((key, partition) -> {
+            for (int from = 0; from < partition.size(); from += batchSize) {
+                List<Integer> batch = partition.subList(from, Math.min(from + batchSize, partition.size()));
+                batches.add(CompletableFuture.runAsync(
+                        RequestCharge.wrap(() -> writeBatch(chunk, batch, key, offset, results, idExtractor, writer)), executor));
+            }
+        });
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+        return Arrays.asList(results);
+    }
+
+    private <T> void writeBatch(List<T> chunk, List<Integer> batch, String key, int offset, BulkItemResult[] results,
+            Function<T, String> idExtractor, BiFunction<String, List<T>, List<T>> writer) {
+        List<T> documents = new ArrayList<>(batch.size());
+        for (int i : batch) {
+            documents.add(chunk.get(i));
+        }
+        try {
+            writer.apply(key, documents);
+            for (int i : batch) {
+                results[i] = new BulkItemResult(offset + i, idExtractor.apply(chunk.get(i)), HttpStatus.CREATED.value(), null);
+            }
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                int i = batch.get(0);
+                results[i] = new BulkItemResult(offset + i, idExtractor.apply(chunk.get(i)), statusOf(ex), ex.getMessage());
+                return;
+            }
+            // find the documents that failed the batch; the others may be written again, which upserts allow
+            for (int i : batch) {
+                writeBatch(chunk, Collections.singletonList(i), key, offset, results, idExtractor, writer);
+            }
+        }
+    }
+
+    private static int statusOf(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DocumentClientException) {
+                return ((DocumentClientException) cause).getStatusCode();
+            }
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+}
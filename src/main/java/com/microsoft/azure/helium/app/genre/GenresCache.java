@@ -0,0 +1,108 @@
+package com.microsoft.azure.helium.app.genre;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * GenresCache
+ *
+ * Refresh-ahead cache for the genre list. A background task reloads the list
+ * well before it expires, so requests are served from memory and only block on
+ * Cosmos DB if the list has never been loaded or every refresh failed for a
+ * whole TTL.
+ */
+@Component
+public class GenresCache implements CacheLoader<String, GenresPayload> {
+
+    private static final String CACHE_NAME = "genres";
+    private static final String KEY = "all";
+
+    @Autowired
+    private GenresService service;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${helium.cache.genres.ttl:3600000}")
+    private long ttl;
+
+    @Value("${helium.cache.genres.refresh-interval:60000}")
+    private long refreshInterval;
+
+    private LoadingCache<String, GenresPayload> cache;
+    private Counter refreshes;
+    private Counter failedRefreshes;
+
+    @PostConstruct
+    public void initialize() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .refreshAfterWrite(refreshInterval, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build(this);
+        // same tag keys as the cache manager's caches, as Prometheus requires
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, "cacheManager", "genresCache", "name", CACHE_NAME);
+        refreshes = refreshCounter("success");
+        failedRefreshes = refreshCounter("failure");
+    }
+
+    public GenresPayload get() {
+        return cache.get(KEY);
+    }
+
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    @Scheduled(fixedDelayString = "${helium.cache.genres.refresh-interval:60000}")
+    public void refresh() {
+        cache.refresh(KEY);
+    }
+
+    @Override
+    public GenresPayload load(String key) throws Exception {
+        List<String> genres = service.getAllGenres();
+        return new GenresPayload(genres, mapper.writeValueAsBytes(genres));
+    }
+
+    @Override
+    public GenresPayload reload(String key, GenresPayload oldValue) throws Exception {
+        try {
+            GenresPayload payload = load(key);
+            refreshes.increment();
+            return payload;
+        } catch (Exception ex) {
+            // the cache keeps serving the old payload
+            failedRefreshes.increment();
+            throw ex;
+        }
+    }
+
+    private Counter refreshCounter(String result) {
+        return Counter.builder("cache.refreshes")
+                .description("Background reloads of the cached value")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(registry);
+    }
+}
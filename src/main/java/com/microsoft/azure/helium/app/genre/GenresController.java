@@ -2,7 +2,10 @@ package com.microsoft.azure.helium.app.genre;
 
 import java.util.List;
 
+import com.microsoft.azure.helium.app.BinaryFormats;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -24,13 +27,24 @@ import io.swagger.annotations.ApiResponse;
 public class GenresController {
 
     @Autowired
-    private GenresService service;
+    private GenresCache cache;
     
-    @RequestMapping(value = "", method = RequestMethod.GET)
+    @RequestMapping(value = "", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Get all genres", notes = "Retrieve and return all genres")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "List of genres objects") })
-    public ResponseEntity<List<String>> getAllGenres() {
-        List<String> genres = service.getAllGenres();
-        return new ResponseEntity<>(genres, HttpStatus.OK);
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "List of genres objects", response = String.class, responseContainer = "List") })
+    public ResponseEntity<byte[]> getAllGenres() {
+        GenresPayload payload = cache.get();
+        return ResponseEntity.status(HttpStatus.OK).eTag(payload.getEtag()).varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON_UTF8).body(payload.getJson());
+    }
+
+    // Spring MVC breaks ties between handlers by the name of their first media type,
+    // so Smile is listed first to keep JSON the default when any type is accepted
+    @RequestMapping(value = "", method = RequestMethod.GET, produces = { BinaryFormats.SMILE_VALUE, BinaryFormats.CBOR_VALUE })
+    @ApiOperation(value = "Get all genres", notes = "Retrieve and return all genres in a binary format")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "List of genres objects", response = String.class, responseContainer = "List") })
+    public ResponseEntity<List<String>> getAllGenresBinary() {
+        // the cached JSON cannot be reused, so the list is encoded by the message converter
+        GenresPayload payload = cache.get();
+        return ResponseEntity.status(HttpStatus.OK).eTag(payload.getEtag()).varyBy(HttpHeaders.ACCEPT).body(payload.getGenres());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.microsoft.azure.helium.app.genre;
+
+import java.util.List;
+
+import com.microsoft.azure.helium.app.ETags;
+
+import lombok.Getter;
+
+/**
+ * GenresPayload
+ *
+ * The genre list together with its JSON serialization and ETag, so cached
+ * responses are written without going through Jackson again and conditional
+ * requests are answered without hashing the list again.
+ */
+@Getter
+public class GenresPayload {
+    private List<String> genres;
+    private byte[] json;
+    private String etag;
+
+    public GenresPayload(List<String> genres, byte[] json) {
+        this.genres = genres;
+        this.json = json;
+        this.etag = ETags.of(json);
+    }
+}
@@ -8,5 +8,5 @@ import org.springframework.stereotype.Repository;
  * GenresRepository
  */
 @Repository
-public interface GenresRepository extends DocumentDbRepository<Genre, String> {
+public interface GenresRepository extends DocumentDbRepository<Genre, String>, GenresRepositoryCustom {
 }
\ No newline at end of file
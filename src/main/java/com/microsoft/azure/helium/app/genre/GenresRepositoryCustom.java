@@ -0,0 +1,13 @@
+package com.microsoft.azure.helium.app.genre;
+
+import java.util.List;
+
+/**
+ * GenresRepositoryCustom
+ *
+ * Queries of the genres collection. They override the Spring Data queries of the
+ * same name so that every page they read is charged to the request.
+ */
+public interface GenresRepositoryCustom {
+    List<Genre> findAll();
+}
@@ -0,0 +1,22 @@
+package com.microsoft.azure.helium.app.genre;
+
+import java.util.List;
+
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.helium.cosmos.DocumentQueries;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * GenresRepositoryImpl
+ */
+public class GenresRepositoryImpl implements GenresRepositoryCustom {
+
+    @Autowired
+    private DocumentQueries queries;
+
+    @Override
+    public List<Genre> findAll() {
+        return queries.list(Genre.class, new SqlQuerySpec("SELECT * FROM ROOT r"));
+    }
+}
@@ -2,6 +2,7 @@ package com.microsoft.azure.helium.app.movie;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.microsoft.azure.helium.app.Constants;
 import com.microsoft.azure.spring.data.cosmosdb.core.mapping.Document;
 
@@ -28,4 +29,7 @@ public class Movie {
   private float votes;
   private List<String> genres;
   private List<Actor> roles;
+  // assigned by Cosmos DB on every write; only deserialized, so it is neither stored nor returned
+  @JsonProperty(value = "_etag", access = JsonProperty.Access.WRITE_ONLY)
+  private String etag;
 }
\ No newline at end of file
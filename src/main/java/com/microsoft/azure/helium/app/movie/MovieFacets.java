@@ -0,0 +1,19 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * MovieFacets
+ *
+ * Number of movies that match a filter, in total and per genre, year, rating
+ * point and 100,000 votes, e.g. to label the options of a browse page.
+ */
+@Getter
+@AllArgsConstructor
+public class MovieFacets {
+    private int count;
+    private Map<String, Map<String, Integer>> facets;
+}
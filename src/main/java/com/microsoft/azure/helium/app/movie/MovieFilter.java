@@ -0,0 +1,47 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.microsoft.azure.helium.app.search.FacetIndex;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * MovieFilter
+ *
+ * Facet filter bound from the query string, e.g.
+ * ?genre=Action&genre=Sci-Fi&minYear=1990&maxYear=1999&minRating=8&minVotes=100000.
+ * A movie matches if it has any of the genres and is within every range.
+ */
+@Getter
+@Setter
+public class MovieFilter {
+
+    static final String GENRES = "genres";
+    static final String YEAR = "year";
+    static final String RATING = "rating";
+    static final String VOTES = "votes";
+
+    private List<String> genre;
+    private Integer minYear;
+    private Integer maxYear;
+    private Float minRating;
+    private Float minVotes;
+
+    public boolean hasCriteria() {
+        return (genre != null && !genre.isEmpty()) || minYear != null || maxYear != null || minRating != null || minVotes != null;
+    }
+
+    FacetIndex.Query toQuery() {
+        FacetIndex.Query query = new FacetIndex.Query()
+                .range(YEAR, Optional.ofNullable(minYear), Optional.ofNullable(maxYear))
+                .range(RATING, Optional.ofNullable(minRating), Optional.empty())
+                .range(VOTES, Optional.ofNullable(minVotes), Optional.empty());
+        if (genre != null && !genre.isEmpty()) {
+            query.keyword(GENRES, genre);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,44 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.microsoft.azure.helium.app.actor.ActorSummary;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * MovieSummary
+ *
+ * List representation of a movie. The cast embedded in the movie document is
+ * left out unless it is asked for with ?expand=roles.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MovieSummary {
+    private String id;
+    private String movieId;
+    private String title;
+    private float year;
+    private float rating;
+    private float votes;
+    private List<String> genres;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ActorSummary> roles;
+
+    public static MovieSummary of(Movie movie) {
+        return new MovieSummary(movie.getId(), movie.getMovieId(), movie.getTitle(), movie.getYear(), movie.getRating(), movie.getVotes(), movie.getGenres(), null);
+    }
+
+    public static List<MovieSummary> of(List<Movie> movies) {
+        return movies.stream().map(MovieSummary::of).collect(Collectors.toList());
+    }
+
+    public MovieSummary withRoles(List<ActorSummary> roles) {
+        return new MovieSummary(id, movieId, title, year, rating, votes, genres, roles);
+    }
+}
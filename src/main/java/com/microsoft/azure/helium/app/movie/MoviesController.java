@@ -1,18 +1,38 @@
 package com.microsoft.azure.helium.app.movie;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.helium.app.BinaryFormats;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.ETags;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.NdJson;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.bulk.BulkReport;
+import com.microsoft.azure.helium.app.search.FacetIndex;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -24,20 +44,105 @@ import io.swagger.annotations.ApiResponse;
  * MovieController
  */
 @RestController
-@RequestMapping(path = "/api/movies", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api/movies", produces = { MediaType.APPLICATION_JSON_VALUE, BinaryFormats.CBOR_VALUE, BinaryFormats.SMILE_VALUE })
 @Api(tags = "Movies")
 public class MoviesController {
 
+    private static final String EXPAND_ROLES = "roles";
+
     @Autowired
     private MoviesService service;
 
+    @Autowired
+    private ObjectMapper mapper;
+
     @RequestMapping(value = "/", method = RequestMethod.GET)
     @ApiOperation(value = "Get all movies", notes = "Retrieve and return all movies")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "List of movie objects") })
-    public ResponseEntity<List<Movie>> getAllMovies(
-            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query) {
-        List<Movie> movies = service.getAllMovies(query);
-        return new ResponseEntity<>(movies, HttpStatus.OK);
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of movie summaries"),
+            @ApiResponse(code = 400, message = "The page size, continuation or expansion is invalid") })
+    public ResponseEntity<List<MovieSummary>> getAllMovies(
+            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "The maximum number of movies to return", required = false) @RequestParam("pageSize") final Optional<Integer> pageSize,
+            @ApiParam(value = "The continuation token returned with the previous page", required = false) @RequestParam("continuation") final Optional<String> continuation,
+            @ApiParam(value = "Set to roles to include the cast of each movie", required = false) @RequestParam("expand") final Optional<String> expand,
+            final MovieFilter filter) {
+        if (expand.isPresent() && !EXPAND_ROLES.equals(expand.get())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        if (!pageSize.isPresent() && !continuation.isPresent()) {
+            List<Movie> movies = filter.hasCriteria() ? service.filterMovies(query, filter) : service.getAllMovies(query);
+            return tag(new ResponseEntity<>(summarize(movies, expand), HttpStatus.OK), movies, expand);
+        }
+
+        int size = pageSize.orElse(Constants.DEFAULT_PAGE_SIZE);
+        if (!Pages.isValidPageSize(size)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        Page<Movie> page = filter.hasCriteria() ? service.filterMovies(query, filter, size, continuation) : service.getMovies(query, size, continuation);
+        return tag(Pages.response(page, summarize(page.getContent(), expand)), page.getContent(), expand);
+    }
+
+    @RequestMapping(value = "/", method = RequestMethod.GET, produces = NdJson.MEDIA_TYPE_VALUE)
+    @ApiOperation(value = "Stream all movies", notes = "Stream all movies as newline-delimited JSON while they are read")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One movie summary per line"),
+            @ApiResponse(code = 400, message = "The expansion is invalid") })
+    public ResponseEntity<StreamingResponseBody> streamMovies(
+            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "Set to roles to include the cast of each movie", required = false) @RequestParam("expand") final Optional<String> expand,
+            final MovieFilter filter) {
+        if (expand.isPresent() && !EXPAND_ROLES.equals(expand.get())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = NdJson.<MovieSummary>stream(mapper, consumer -> {
+            Consumer<List<Movie>> pages = page -> consumer.accept(summarize(page, expand));
+            if (filter.hasCriteria()) {
+                service.forEachMoviePage(query, filter, pages);
+            } else {
+                service.forEachMoviePage(query, pages);
+            }
+        });
+        return ResponseEntity.ok().contentType(NdJson.MEDIA_TYPE).body(body);
+    }
+
+    @RequestMapping(value = "/top", method = RequestMethod.GET)
+    @ApiOperation(value = "Get top rated movies", notes = "Retrieve and return the highest rated movies, optionally of one genre and/or year")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of movie summaries, highest rating and then most votes first"),
+            @ApiResponse(code = 400, message = "The limit is out of range") })
+    public ResponseEntity<List<MovieSummary>> getTopMovies(
+            @ApiParam(value = "The genre to rank movies of", required = false) @RequestParam("genre") final Optional<String> genre,
+            @ApiParam(value = "The year to rank movies of", required = false) @RequestParam("year") final Optional<Integer> year,
+            @ApiParam(value = "The maximum number of movies to return", required = false) @RequestParam("limit") final Optional<Integer> limit) {
+        int size = limit.orElse(Constants.DEFAULT_TOP_LIMIT);
+        if (!Pages.isValidPageSize(size)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<Movie> movies = service.getTopMovies(genre, year, size);
+        return ETags.tag(new ResponseEntity<>(MovieSummary.of(movies), HttpStatus.OK), movies, Movie::getEtag);
+    }
+
+    @RequestMapping(value = "/facets", method = RequestMethod.GET)
+    @ApiOperation(value = "Get movie facets", notes = "Count the movies that match a filter, in total and per genre, year, rating and votes")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The facet counts"),
+            @ApiResponse(code = 503, message = "The facet indexes are still being built") })
+    public ResponseEntity<MovieFacets> getMovieFacets(
+            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            final MovieFilter filter) {
+        Optional<FacetIndex.Result<Movie>> facets = service.getMovieFacets(query, filter);
+        if (!facets.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        FacetIndex.Result<Movie> result = facets.get();
+        return ETags.tag(new ResponseEntity<>(new MovieFacets(result.getMatches().size(), result.getFacets()), HttpStatus.OK),
+                result.getMatches(), Movie::getEtag);
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
@@ -49,7 +154,82 @@ public class MoviesController {
             @ApiParam(value = "The ID of the movie to look for", required = true) @PathVariable("id") final String movieId) {
         Optional<Movie> movie = service.getMovie(movieId);
         if (movie.isPresent()) {
-            return new ResponseEntity<>(movie.get(), HttpStatus.OK);
+            return ETags.tag(new ResponseEntity<>(movie.get(), HttpStatus.OK), Collections.singletonList(movie.get()), Movie::getEtag);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = "fields")
+    @ApiOperation(value = "Get fields of all movies", notes = "Retrieve and return only the requested fields of all movies")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of partial movie objects"),
+            @ApiResponse(code = 400, message = "The page size is out of range, a field is unknown or expand is given") })
+    public ResponseEntity<List<Map<String, Object>>> getAllMovieFields(
+            @ApiParam(value = "The comma-separated movie fields to return", required = true) @RequestParam("fields") final String fields,
+            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "The maximum number of movies to return", required = false) @RequestParam("pageSize") final Optional<Integer> pageSize,
+            @ApiParam(value = "The continuation token returned with the previous page", required = false) @RequestParam("continuation") final Optional<String> continuation,
+            @ApiParam(value = "Not supported with fields; fields=roles returns the roles stored in each movie", required = false) @RequestParam("expand") final Optional<String> expand,
+            final MovieFilter filter) {
+        Optional<Fields> selected = Fields.parse(fields, Movie.class);
+        int size = pageSize.orElse(Constants.DEFAULT_PAGE_SIZE);
+        if (!selected.isPresent() || !Pages.isValidPageSize(size) || expand.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        if (!pageSize.isPresent() && !continuation.isPresent()) {
+            return new ResponseEntity<>(filter.hasCriteria() ? service.filterMovies(query, filter, selected.get())
+                    : service.getAllMovies(query, selected.get()), HttpStatus.OK);
+        }
+        return Pages.response(filter.hasCriteria() ? service.filterMovies(query, filter, selected.get(), size, continuation)
+                : service.getMovies(query, selected.get(), size, continuation));
+    }
+
+    @RequestMapping(value = "/", method = RequestMethod.GET, params = "fields", produces = NdJson.MEDIA_TYPE_VALUE)
+    @ApiOperation(value = "Stream fields of all movies", notes = "Stream only the requested fields of all movies as newline-delimited JSON while they are read")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "One partial movie object per line"),
+            @ApiResponse(code = 400, message = "A field is unknown or expand is given") })
+    public ResponseEntity<StreamingResponseBody> streamMovieFields(
+            @ApiParam(value = "The comma-separated movie fields to return", required = true) @RequestParam("fields") final String fields,
+            @ApiParam(value = "The movie title to filter by", required = false) @RequestParam("q") final Optional<String> query,
+            @ApiParam(value = "Not supported with fields; fields=roles returns the roles stored in each movie", required = false) @RequestParam("expand") final Optional<String> expand,
+            final MovieFilter filter) {
+        Optional<Fields> selected = Fields.parse(fields, Movie.class);
+        if (!selected.isPresent() || expand.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = NdJson.<Map<String, Object>>stream(mapper, consumer -> {
+            if (filter.hasCriteria()) {
+                service.forEachMoviePage(query, filter, selected.get(), consumer);
+            } else {
+                service.forEachMoviePage(query, selected.get(), consumer);
+            }
+        });
+        return ResponseEntity.ok().contentType(NdJson.MEDIA_TYPE).body(body);
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET, params = "fields")
+    @ApiOperation(value = "Get fields of single movie", notes = "Retrieve and return only the requested fields of a single movie by movie ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The partial movie object"),
+            @ApiResponse(code = 400, message = "A field is unknown"),
+            @ApiResponse(code = 404, message = "A movie with the specified ID was not found") })
+    public ResponseEntity<Map<String, Object>> getMovieFields(
+            @ApiParam(value = "The ID of the movie to look for", required = true) @PathVariable("id") final String movieId,
+            @ApiParam(value = "The comma-separated movie fields to return", required = true) @RequestParam("fields") final String fields) {
+        Optional<Fields> selected = Fields.parse(fields, Movie.class);
+        if (!selected.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // point reads return whole documents, so the projection is applied here
+        Optional<Movie> movie = service.getMovie(movieId);
+        if (movie.isPresent()) {
+            return ETags.tag(new ResponseEntity<>(selected.get().project(movie.get()), HttpStatus.OK), Collections.singletonList(movie.get()), Movie::getEtag,
+                    selected.get().getNames().toString());
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -59,16 +239,38 @@ public class MoviesController {
     @ResponseStatus(HttpStatus.CREATED)
     @ApiOperation(value = "Create movie", notes = "Creates an movie")
     @ApiResponses(value = { @ApiResponse(code = 201, message = "The created movie") })
-    public ResponseEntity<Movie> createMovie(final Movie movie) {
+    public ResponseEntity<Movie> createMovie(@RequestBody final Movie movie) {
         Movie savedMovie = service.createMovie(movie);
         return new ResponseEntity<>(savedMovie, HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/bulk", method = RequestMethod.POST, consumes = { MediaType.APPLICATION_JSON_VALUE, NdJson.MEDIA_TYPE_VALUE })
+    @ApiOperation(value = "Create movies in bulk", notes = "Creates the movies of a JSON array or newline-delimited JSON stream and reports the outcome of each one")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The outcome of each movie"),
+            @ApiResponse(code = 400, message = "The body is not a JSON array or newline-delimited JSON") })
+    public ResponseEntity<BulkReport> createMovies(final InputStream body) throws IOException {
+        MappingIterator<Movie> movies;
+        try {
+            movies = mapper.readerFor(Movie.class).readValues(body);
+        } catch (JsonProcessingException ex) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(service.createMovies(movies), HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/{id}", method = RequestMethod.PUT)
     @ApiOperation(value = "Update movie", notes = "Update a movie")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "The updated movie") })
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "The updated movie"),
+            @ApiResponse(code = 400, message = "The id or movieId of the body is not the ID of the path") })
     public ResponseEntity<Movie> updateMovie(
-            @ApiParam(value = "The ID of the actor to patch", required = true) @PathVariable("id") final String movieId, final Movie movie) {
+            @ApiParam(value = "The ID of the actor to patch", required = true) @PathVariable("id") final String movieId, @RequestBody final Movie movie) {
+        // the cache is evicted for the path ID, so the body must not move the movie to another one
+        if (!movieId.equals(movie.getId()) || !movieId.equals(movie.getMovieId())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
         Movie savedMovie = service.updateMovie(movieId, movie);
         return new ResponseEntity<>(savedMovie, HttpStatus.OK);
     }
@@ -89,4 +291,13 @@ public class MoviesController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    private List<MovieSummary> summarize(List<Movie> movies, Optional<String> expand) {
+        return expand.isPresent() ? service.summarizeWithRoles(movies) : MovieSummary.of(movies);
+    }
+
+    private static <T> ResponseEntity<T> tag(ResponseEntity<T> response, List<Movie> movies, Optional<String> expand) {
+        // the expanded roles are separate documents with _etag values of their own
+        return expand.isPresent() ? response : ETags.tag(response, movies, Movie::getEtag);
+    }
+}
@@ -2,15 +2,15 @@ package com.microsoft.azure.helium.app.movie;
 
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 import com.microsoft.azure.spring.data.cosmosdb.repository.DocumentDbRepository;
 
 /**
  * MoviesRepository
  */
 @Repository
-public interface MoviesRepository extends DocumentDbRepository<Movie, String>  {
-    List<Movie> findByMovieId(String movieId);
-    List<Movie> findByTextSearchContaining(String movieName);
+public interface MoviesRepository extends DocumentDbRepository<Movie, String>, MoviesRepositoryCustom {
+    // saved by MoviesRepositoryImpl; declared here as both super-interfaces declare it
+    @Override
+    <S extends Movie> S save(S movie);
+
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * MoviesRepositoryCustom
+ *
+ * Queries and writes of the movies collection. They override the Spring Data methods
+ * of the same name so that every page they read is charged to the request and a
+ * saved document comes back with the ETag Cosmos DB assigned it.
+ */
+public interface MoviesRepositoryCustom {
+    List<Movie> findAll();
+    Page<Movie> findAll(Pageable pageable);
+    List<Movie> findAllById(Iterable<String> ids);
+    List<Movie> findByMovieId(String movieId);
+    List<Movie> findByTextSearchContaining(String movieName);
+    Page<Movie> findByTextSearchContaining(String movieName, Pageable pageable);
+    Page<Movie> findByFilter(MovieFilter filter, Optional<String> movieName, Pageable pageable);
+    List<Movie> findTopRated(Optional<String> genre, Optional<Integer> year, int limit);
+    Optional<Movie> pointReadByMovieId(String movieId);
+    <S extends Movie> S save(S movie);
+    List<Movie> saveBatch(String partitionKey, List<Movie> movies);
+    void forEachPage(int pageSize, Consumer<List<Movie>> consumer);
+    void forEachPageByTextSearchContaining(String movieName, int pageSize, Consumer<List<Movie>> consumer);
+    void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, int pageSize, Consumer<List<Movie>> consumer);
+    Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable);
+    Page<Map<String, Object>> selectByTextSearchContaining(String movieName, Fields fields, DocumentDbPageRequest pageable);
+    Page<Map<String, Object>> selectByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, DocumentDbPageRequest pageable);
+    void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer);
+    void forEachPageByTextSearchContaining(String movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer);
+    void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer);
+}
@@ -0,0 +1,217 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+import com.microsoft.azure.documentdb.SqlParameter;
+import com.microsoft.azure.documentdb.SqlParameterCollection;
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.PartitionKeys;
+import com.microsoft.azure.helium.cosmos.DocumentQueries;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * MoviesRepositoryImpl
+ */
+public class MoviesRepositoryImpl implements MoviesRepositoryCustom {
+
+    @Autowired
+    private DocumentQueries queries;
+
+    @Override
+    public List<Movie> findAll() {
+        return queries.list(Movie.class, new SqlQuerySpec("SELECT * FROM ROOT r"));
+    }
+
+    @Override
+    public Page<Movie> findAll(Pageable pageable) {
+        return queries.page(Movie.class, new SqlQuerySpec("SELECT * FROM ROOT r"), pageable);
+    }
+
+    @Override
+    public List<Movie> findAllById(Iterable<String> ids) {
+        SqlParameterCollection parameters = new SqlParameterCollection();
+        StringJoiner in = new StringJoiner(", ", "SELECT * FROM ROOT r WHERE r.id IN (", ")");
+        for (String id : ids) {
+            String name = "@id" + parameters.size();
+            parameters.add(new SqlParameter(name, id));
+            in.add(name);
+        }
+        if (parameters.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return queries.list(Movie.class, new SqlQuerySpec(in.toString(), parameters));
+    }
+
+    @Override
+    public List<Movie> findByMovieId(String movieId) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM ROOT r WHERE r.movieId = @movieId",
+                new SqlParameterCollection(new SqlParameter("@movieId", movieId)));
+        return queries.list(Movie.class, query);
+    }
+
+    @Override
+    public List<Movie> findByTextSearchContaining(String movieName) {
+        return queries.list(Movie.class, textSearchContaining(movieName));
+    }
+
+    @Override
+    public Page<Movie> findByTextSearchContaining(String movieName, Pageable pageable) {
+        return queries.page(Movie.class, textSearchContaining(movieName), pageable);
+    }
+
+    @Override
+    public Page<Movie> findByFilter(MovieFilter filter, Optional<String> movieName, Pageable pageable) {
+        return queries.page(Movie.class, matching(filter, movieName, "*"), pageable);
+    }
+
+    /**
+     * Returns the highest rated movies, most votes first among equal ratings, of
+     * the genre and year if given. The sort needs a composite index on rating
+     * descending, votes descending and movieId ascending.
+     */
+    @Override
+    public List<Movie> findTopRated(Optional<String> genre, Optional<Integer> year, int limit) {
+        SqlParameterCollection parameters = new SqlParameterCollection();
+        parameters.add(new SqlParameter("@limit", limit));
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (genre.isPresent()) {
+            // genres match regardless of case, like the rankings
+            where.add("EXISTS(SELECT VALUE g FROM g IN r.genres WHERE LOWER(g) = @genre)");
+            parameters.add(new SqlParameter("@genre", genre.get().toLowerCase(Locale.US)));
+        }
+        if (year.isPresent()) {
+            where.add("r.year = @year");
+            parameters.add(new SqlParameter("@year", year.get()));
+        }
+
+        SqlQuerySpec query = new SqlQuerySpec("SELECT TOP @limit * FROM ROOT r" + where
+                + " ORDER BY r.rating DESC, r.votes DESC, r.movieId ASC", parameters);
+        return queries.list(Movie.class, query);
+    }
+
+    @Override
+    public Optional<Movie> pointReadByMovieId(String movieId) {
+        // the document ID is the movie ID
+        return PartitionKeys.fromId(movieId).flatMap(key -> queries.pointRead(Movie.class, movieId, key));
+    }
+
+    @Override
+    public <S extends Movie> S save(S movie) {
+        // the stored copy carries the ETag Cosmos DB assigned; the input carries none
+        return queries.upsert(movie, movie.getKey());
+    }
+
+    @Override
+    public List<Movie> saveBatch(String partitionKey, List<Movie> movies) {
+        return queries.upsertAll(Movie.class, partitionKey, movies);
+    }
+
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<Movie>> consumer) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM ROOT r");
+        queries.forEachPage(Movie.class, query, pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String movieName, int pageSize, Consumer<List<Movie>> consumer) {
+        queries.forEachPage(Movie.class, textSearchContaining(movieName), pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, int pageSize, Consumer<List<Movie>> consumer) {
+        queries.forEachPage(Movie.class, matching(filter, movieName, "*"), pageSize, consumer);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r");
+        return queries.page(Movie.class, query, pageable, document -> fields.retain(document.getHashMap()));
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByTextSearchContaining(String movieName, Fields fields, DocumentDbPageRequest pageable) {
+        return queries.page(Movie.class, textSearchContaining(movieName, fields), pageable, document -> fields.retain(document.getHashMap()));
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, DocumentDbPageRequest pageable) {
+        return queries.page(Movie.class, matching(filter, movieName, fields.select("r")), pageable, document -> fields.retain(document.getHashMap()));
+    }
+
+    @Override
+    public void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r");
+        queries.forEachPage(Movie.class, query, pageSize, document -> fields.retain(document.getHashMap()), consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        queries.forEachPage(Movie.class, textSearchContaining(movieName, fields), pageSize, document -> fields.retain(document.getHashMap()), consumer);
+    }
+
+    @Override
+    public void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        queries.forEachPage(Movie.class, matching(filter, movieName, fields.select("r")), pageSize, document -> fields.retain(document.getHashMap()), consumer);
+    }
+
+    /**
+     * Selects the movies that match the filter and, if given, contain the text,
+     * ordered by ID like the facet indexes.
+     */
+    private static SqlQuerySpec matching(MovieFilter filter, Optional<String> movieName, String select) {
+        SqlParameterCollection parameters = new SqlParameterCollection();
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (movieName.isPresent()) {
+            where.add("CONTAINS(r.textSearch, @textSearch)");
+            parameters.add(new SqlParameter("@textSearch", movieName.get()));
+        }
+        if (filter.getGenre() != null && !filter.getGenre().isEmpty()) {
+            // genres match regardless of case, like the facet indexes
+            StringJoiner in = new StringJoiner(", ", "EXISTS(SELECT VALUE g FROM g IN r.genres WHERE LOWER(g) IN (", "))");
+            for (String genre : filter.getGenre()) {
+                String name = "@genre" + parameters.size();
+                parameters.add(new SqlParameter(name, genre.toLowerCase(Locale.US)));
+                in.add(name);
+            }
+            where.add(in.toString());
+        }
+        if (filter.getMinYear() != null) {
+            where.add("r.year >= @minYear");
+            parameters.add(new SqlParameter("@minYear", filter.getMinYear()));
+        }
+        if (filter.getMaxYear() != null) {
+            where.add("r.year <= @maxYear");
+            parameters.add(new SqlParameter("@maxYear", filter.getMaxYear()));
+        }
+        if (filter.getMinRating() != null) {
+            where.add("r.rating >= @minRating");
+            parameters.add(new SqlParameter("@minRating", filter.getMinRating()));
+        }
+        if (filter.getMinVotes() != null) {
+            where.add("r.votes >= @minVotes");
+            parameters.add(new SqlParameter("@minVotes", filter.getMinVotes()));
+        }
+        return new SqlQuerySpec("SELECT " + select + " FROM ROOT r" + where + " ORDER BY r.movieId", parameters);
+    }
+
+    private static SqlQuerySpec textSearchContaining(String movieName) {
+        return new SqlQuerySpec("SELECT * FROM ROOT r WHERE CONTAINS(r.textSearch, @textSearch)",
+                new SqlParameterCollection(new SqlParameter("@textSearch", movieName)));
+    }
+
+    private static SqlQuerySpec textSearchContaining(String movieName, Fields fields) {
+        return new SqlQuerySpec("SELECT " + fields.select("r") + " FROM ROOT r WHERE CONTAINS(r.textSearch, @textSearch)",
+                new SqlParameterCollection(new SqlParameter("@textSearch", movieName)));
+    }
+}
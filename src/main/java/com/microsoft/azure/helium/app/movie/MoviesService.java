@@ -1,9 +1,45 @@
 package com.microsoft.azure.helium.app.movie;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.RequestCoalescer;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorSummary;
+import com.microsoft.azure.helium.app.actor.ActorsRepository;
+import com.microsoft.azure.helium.app.bulk.BulkReport;
+import com.microsoft.azure.helium.app.bulk.BulkWriter;
+import com.microsoft.azure.helium.app.search.FacetIndex;
+import com.microsoft.azure.helium.app.search.NGramIndex;
+import com.microsoft.azure.helium.app.search.RankingIndex;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -16,19 +52,230 @@ public class MoviesService {
     @Autowired
     private MoviesRepository repository;
 
+    @Autowired
+    private BulkWriter bulkWriter;
+
+    @Autowired
+    private ActorsRepository actorsRepository;
+
+    @Value("${helium.search.index.enabled:true}")
+    private boolean searchIndexEnabled;
+
+    // highest rating first, then most votes
+    private static final Comparator<Movie> TOP_RATED = Comparator.comparingDouble(Movie::getRating).reversed()
+            .thenComparing(Comparator.comparingDouble(Movie::getVotes).reversed());
+
+    private final NGramIndex<Movie> searchIndex = new NGramIndex<>(Movie::getMovieId, Movie::getTextSearch);
+    private final RankingIndex<Movie> rankings = new RankingIndex<>(Movie::getMovieId, MoviesService::rankingBuckets, TOP_RATED);
+    private final FacetIndex<Movie> facets = facetIndex();
+
+    // concurrent identical reads share one repository call
+    private final RequestCoalescer<String, Optional<Movie>> lookups = new RequestCoalescer<>();
+    private final RequestCoalescer<String, List<Movie>> searches = new RequestCoalescer<>();
+
     public List<Movie> getAllMovies(Optional<String> query) {
         if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
-            return repository.findByTextSearchContaining(query.get().toLowerCase());
+            String text = query.get().toLowerCase();
+            return searchIndex.search(text).orElseGet(() -> searches.load(text, () -> repository.findByTextSearchContaining(text)));
+        } else {
+            // queries are never empty, so the empty key is free for the full list
+            return searches.load("", () -> repository.findAll());
+        }
+    }
+
+    public Page<Movie> getMovies(Optional<String> query, int pageSize, Optional<String> continuation) {
+        return page(query, pageSize, continuation, Function.identity(), repository::findByTextSearchContaining, repository::findAll);
+    }
+
+    /**
+     * Returns a page of the matching movies with only the given fields. The
+     * projection is part of the Cosmos DB query, so the other fields are never read.
+     */
+    public Page<Map<String, Object>> getMovies(Optional<String> query, Fields fields, int pageSize, Optional<String> continuation) {
+        return page(query, pageSize, continuation, fields::project,
+                (text, pageable) -> repository.selectByTextSearchContaining(text, fields, pageable),
+                pageable -> repository.selectAll(fields, pageable));
+    }
+
+    /**
+     * Returns all matching movies with only the given fields.
+     */
+    public List<Map<String, Object>> getAllMovies(Optional<String> query, Fields fields) {
+        List<Map<String, Object>> movies = new ArrayList<>();
+        forEachMoviePage(query, fields, movies::addAll);
+        return movies;
+    }
+
+    /**
+     * Hands the matching movies to the consumer one page at a time.
+     */
+    public void forEachMoviePage(Optional<String> query, Consumer<List<Movie>> consumer) {
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            Optional<List<Movie>> indexed = searchIndex.search(text);
+            if (indexed.isPresent()) {
+                consumer.accept(indexed.get());
+            } else {
+                repository.forEachPageByTextSearchContaining(text, Constants.DEFAULT_PAGE_SIZE, consumer);
+            }
+        } else {
+            repository.forEachPage(Constants.DEFAULT_PAGE_SIZE, consumer);
+        }
+    }
+
+    /**
+     * Hands the matching movies to the consumer one page at a time, with only the given fields.
+     */
+    public void forEachMoviePage(Optional<String> query, Fields fields, Consumer<List<Map<String, Object>>> consumer) {
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            Optional<List<Movie>> indexed = searchIndex.search(text);
+            if (indexed.isPresent()) {
+                consumer.accept(fields.projectAll(indexed.get()));
+            } else {
+                repository.forEachPageByTextSearchContaining(text, fields, Constants.DEFAULT_PAGE_SIZE, consumer);
+            }
+        } else {
+            repository.forEachPage(fields, Constants.DEFAULT_PAGE_SIZE, consumer);
+        }
+    }
+
+    /**
+     * Returns summaries of the movies with summaries of their cast. The actors are read
+     * in batches, one query per batch instead of one per actor; the copies embedded
+     * in the movie documents stand in for actors that are missing.
+     */
+    public List<MovieSummary> summarizeWithRoles(List<Movie> movies) {
+        List<String> actorIds = movies.stream()
+                .flatMap(movie -> movie.getRoles() == null ? Stream.<Actor>empty() : movie.getRoles().stream())
+                .map(Actor::getActorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, ActorSummary> actors = new HashMap<>();
+        for (int from = 0; from < actorIds.size(); from += Constants.EXPAND_BATCH_SIZE) {
+            List<String> batch = actorIds.subList(from, Math.min(from + Constants.EXPAND_BATCH_SIZE, actorIds.size()));
+            // the document ID is the actor ID
+            actorsRepository.findAllById(batch).forEach(actor -> actors.put(actor.getActorId(), ActorSummary.of(actor)));
+        }
+
+        return movies.stream()
+                .map(movie -> MovieSummary.of(movie).withRoles(movie.getRoles() == null ? Collections.emptyList() : movie.getRoles().stream()
+                        .map(actor -> actors.getOrDefault(actor.getActorId(), ActorSummary.of(actor)))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the highest rated movies, optionally only those of a genre and/or a
+     * year. Served from the precomputed rankings while they are warm, otherwise
+     * by a Cosmos DB query that reads only the movies it returns.
+     */
+    public List<Movie> getTopMovies(Optional<String> genre, Optional<Integer> year, int limit) {
+        Optional<String> byGenre = genre.filter(StringUtils::hasText);
+        return rankings.top(rankingBucket(byGenre, year), limit).orElseGet(() -> repository.findTopRated(byGenre, year, limit));
+    }
+
+    /**
+     * Returns the movies that match the filter and, if given, the text query,
+     * ordered by ID, with the number of matches per genre, year, rating point and
+     * 100,000 votes, or an empty Optional while the facet indexes are cold: the
+     * counts cover every match, which only the indexes have at hand.
+     */
+    public Optional<FacetIndex.Result<Movie>> getMovieFacets(Optional<String> query, MovieFilter filter) {
+        if (!facets.isWarm()) {
+            return Optional.empty();
+        }
+
+        FacetIndex.Query criteria = filter.toQuery();
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            criteria.ids(getAllMovies(query).stream().map(Movie::getMovieId).collect(Collectors.toList()));
+        }
+        return facets.query(criteria);
+    }
+
+    /**
+     * Returns the movies that match the filter and, if given, the text query,
+     * ordered by ID. Served from the facet indexes while they are warm, otherwise
+     * by a Cosmos DB query that reads only the matching movies.
+     */
+    public List<Movie> filterMovies(Optional<String> query, MovieFilter filter) {
+        List<Movie> movies = new ArrayList<>();
+        forEachMoviePage(query, filter, movies::addAll);
+        return movies;
+    }
+
+    /**
+     * Returns a page of the movies that match the filter and, if given, the text
+     * query.
+     */
+    public Page<Movie> filterMovies(Optional<String> query, MovieFilter filter, int pageSize, Optional<String> continuation) {
+        return filterPage(query, filter, pageSize, continuation, Function.identity(),
+                pageable -> repository.findByFilter(filter, text(query), pageable),
+                () -> filterMovies(query, filter));
+    }
+
+    /**
+     * Returns all movies that match the filter and, if given, the text query,
+     * with only the given fields.
+     */
+    public List<Map<String, Object>> filterMovies(Optional<String> query, MovieFilter filter, Fields fields) {
+        List<Map<String, Object>> movies = new ArrayList<>();
+        forEachMoviePage(query, filter, fields, movies::addAll);
+        return movies;
+    }
+
+    /**
+     * Returns a page of the movies that match the filter and, if given, the text
+     * query, with only the given fields.
+     */
+    public Page<Map<String, Object>> filterMovies(Optional<String> query, MovieFilter filter, Fields fields, int pageSize, Optional<String> continuation) {
+        return filterPage(query, filter, pageSize, continuation, fields::project,
+                pageable -> repository.selectByFilter(filter, text(query), fields, pageable),
+                () -> filterMovies(query, filter, fields));
+    }
+
+    /**
+     * Hands the movies that match the filter and, if given, the text query to the
+     * consumer one page at a time.
+     */
+    public void forEachMoviePage(Optional<String> query, MovieFilter filter, Consumer<List<Movie>> consumer) {
+        Optional<FacetIndex.Result<Movie>> indexed = getMovieFacets(query, filter);
+        if (indexed.isPresent()) {
+            consumer.accept(indexed.get().getMatches());
         } else {
-            return (List<Movie>) repository.findAll();
+            repository.forEachPageByFilter(filter, text(query), Constants.DEFAULT_PAGE_SIZE, consumer);
         }
     }
 
+    /**
+     * Hands the movies that match the filter and, if given, the text query to the
+     * consumer one page at a time, with only the given fields.
+     */
+    public void forEachMoviePage(Optional<String> query, MovieFilter filter, Fields fields, Consumer<List<Map<String, Object>>> consumer) {
+        Optional<FacetIndex.Result<Movie>> indexed = getMovieFacets(query, filter);
+        if (indexed.isPresent()) {
+            consumer.accept(fields.projectAll(indexed.get().getMatches()));
+        } else {
+            repository.forEachPageByFilter(filter, text(query), fields, Constants.DEFAULT_PAGE_SIZE, consumer);
+        }
+    }
+
+    @Cacheable(cacheNames = Constants.MOVIE_CACHE_NAME, unless = "#result == null")
     public Optional<Movie> getMovie(String movieId) {
         if (StringUtils.isEmpty(movieId)) {
             throw new NullPointerException("movieId cannot be empty or null");
         }
 
+        return lookups.load(movieId, () -> readMovie(movieId));
+    }
+
+    private Optional<Movie> readMovie(String movieId) {
+        Optional<Movie> movie = repository.pointReadByMovieId(movieId);
+        if (movie.isPresent()) {
+            return movie;
+        }
+
         List<Movie> movies = repository.findByMovieId(movieId);
         if (movies.isEmpty()) {
             return Optional.empty();
@@ -37,14 +284,20 @@ public class MoviesService {
         }
     }
 
+    @CacheEvict(cacheNames = Constants.MOVIE_CACHE_NAME, key = "#movie.movieId")
     public Movie createMovie(Movie movie) {
         if (movie.equals(null)) {
             throw new NullPointerException("movie cannot be null");
         }
 
-        return repository.save(movie);
+        Movie savedMovie = repository.save(movie);
+        searchIndex.put(savedMovie);
+        rankings.put(savedMovie);
+        facets.put(savedMovie);
+        return savedMovie;
     }
 
+    @CacheEvict(cacheNames = Constants.MOVIE_CACHE_NAME, key = "#movieId")
     public Movie updateMovie(String movieId, Movie movie) {
         if (StringUtils.isEmpty(movieId)) {
             throw new NullPointerException("movieId cannot be empty or null");
@@ -54,18 +307,137 @@ public class MoviesService {
             throw new NullPointerException("movie cannot be null");
         }
 
+        if (!movieId.equals(movie.getId()) || !movieId.equals(movie.getMovieId())) {
+            throw new IllegalArgumentException(String.format("movie does not have the ID %s", movieId));
+        }
+
         if (repository.existsById(movieId)) {
-            return repository.save(movie);
+            Movie savedMovie = repository.save(movie);
+            searchIndex.put(savedMovie);
+            rankings.put(savedMovie);
+            facets.put(savedMovie);
+            return savedMovie;
         } else {
             throw new RuntimeException(String.format("%s does not exist", movieId));
         }
     }
 
+    @CacheEvict(cacheNames = Constants.MOVIE_CACHE_NAME, key = "#movieId")
     public void deleteMovie(String movieId) {
         if (StringUtils.isEmpty(movieId)) {
             throw new NullPointerException("movieId cannot be empty or null");
         }
 
         repository.deleteById(movieId);
+        searchIndex.remove(movieId);
+        rankings.remove(movieId);
+        facets.remove(movieId);
+    }
+
+    /**
+     * Writes every movie of the stream and reports the outcome of each one.
+     */
+    @CacheEvict(cacheNames = Constants.MOVIE_CACHE_NAME, allEntries = true)
+    public BulkReport createMovies(Iterator<Movie> movies) {
+        if (movies == null) {
+            throw new NullPointerException("movies cannot be null");
+        }
+
+        return bulkWriter.write(movies, Movie::getId, Movie::getKey, (key, batch) -> {
+            List<Movie> savedMovies = repository.saveBatch(key, batch);
+            for (Movie savedMovie : savedMovies) {
+                searchIndex.put(savedMovie);
+                rankings.put(savedMovie);
+                facets.put(savedMovie);
+            }
+            return savedMovies;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${helium.search.index.refresh-interval:300000}")
+    public void refreshSearchIndex() {
+        if (searchIndexEnabled) {
+            // each index records the writes made from the start of the one shared load until it swaps
+            searchIndex.rebuild(() -> rankings.rebuild(() -> facets.rebuild(repository::findAll)));
+        }
+    }
+
+    private static FacetIndex<Movie> facetIndex() {
+        return new FacetIndex<Movie>(Movie::getMovieId)
+                .keyword(MovieFilter.GENRES, Movie::getGenres)
+                .numeric(MovieFilter.YEAR, Movie::getYear, 1)
+                .numeric(MovieFilter.RATING, Movie::getRating, 1)
+                .numeric(MovieFilter.VOTES, Movie::getVotes, 100000);
+    }
+
+    /**
+     * Rankings a movie is part of: all movies, its genres, its year and each of
+     * its genres in its year.
+     */
+    private static Collection<String> rankingBuckets(Movie movie) {
+        Optional<Integer> year = Optional.of((int) movie.getYear());
+        Set<String> buckets = new HashSet<>();
+        buckets.add(rankingBucket(Optional.empty(), Optional.empty()));
+        buckets.add(rankingBucket(Optional.empty(), year));
+        if (movie.getGenres() != null) {
+            for (String genre : movie.getGenres()) {
+                buckets.add(rankingBucket(Optional.of(genre), Optional.empty()));
+                buckets.add(rankingBucket(Optional.of(genre), year));
+            }
+        }
+        return buckets;
+    }
+
+    private static String rankingBucket(Optional<String> genre, Optional<Integer> year) {
+        return genre.map(g -> g.toLowerCase(Locale.US)).orElse("") + "|" + year.map(String::valueOf).orElse("");
+    }
+
+    private static Optional<String> text(Optional<String> query) {
+        return query.filter(q -> !StringUtils.isEmpty(q)).map(String::toLowerCase);
+    }
+
+    /**
+     * Pages through the facet indexes while they are warm and their offset tokens
+     * apply, otherwise through Cosmos DB; view turns indexed movies into the
+     * shape the Cosmos DB queries return.
+     */
+    private <T> Page<T> filterPage(Optional<String> query, MovieFilter filter, int pageSize, Optional<String> continuation, Function<Movie, T> view,
+            Function<DocumentDbPageRequest, Page<T>> filtered, Supplier<List<T>> all) {
+        DocumentDbPageRequest pageable = Pages.request(pageSize, continuation.orElse(null));
+        if (Pages.isOffset(pageable.getRequestContinuation())) {
+            Optional<FacetIndex.Result<Movie>> indexed = getMovieFacets(query, filter);
+            if (indexed.isPresent()) {
+                return Pages.slice(indexed.get().getMatches(), pageable).map(view);
+            } else if (pageable.getRequestContinuation() != null) {
+                // offset token issued by a warm replica; Cosmos DB cannot resume from it
+                return Pages.slice(all.get(), pageable);
+            }
+        }
+        return filtered.apply(pageable);
+    }
+
+    /**
+     * Pages through the search index while it is warm and its offset tokens
+     * apply, otherwise through Cosmos DB; view turns indexed movies into the
+     * shape the Cosmos DB queries return.
+     */
+    private <T> Page<T> page(Optional<String> query, int pageSize, Optional<String> continuation, Function<Movie, T> view,
+            BiFunction<String, DocumentDbPageRequest, Page<T>> search, Function<DocumentDbPageRequest, Page<T>> all) {
+        DocumentDbPageRequest pageable = Pages.request(pageSize, continuation.orElse(null));
+        if (query.isPresent() && !StringUtils.isEmpty(query.get())) {
+            String text = query.get().toLowerCase();
+            if (Pages.isOffset(pageable.getRequestContinuation())) {
+                Optional<List<Movie>> indexed = searchIndex.search(text);
+                if (indexed.isPresent()) {
+                    return Pages.slice(indexed.get(), pageable).map(view);
+                } else if (pageable.getRequestContinuation() != null) {
+                    // offset token issued by a warm replica; Cosmos DB cannot resume from it
+                    return Pages.slice(repository.findByTextSearchContaining(text), pageable).map(view);
+                }
+            }
+            return search.apply(text, pageable);
+        } else {
+            return all.apply(pageable);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,420 @@
+package com.microsoft.azure.helium.app.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import lombok.Getter;
+
+/**
+ * FacetIndex
+ *
+ * In-memory secondary indexes for filtering documents by keyword fields, e.g.
+ * genres, and numeric ranges, e.g. years or ratings, and counting the matches
+ * per facet value. Documents are numbered in ID order; each keyword value maps
+ * to a bitmap of the documents that have it and each numeric field is a sorted
+ * array of values with the number of their document, so a filter is a few
+ * binary searches and bitmap intersections instead of a scan. Writes are
+ * applied to the next snapshot, which the first query after them builds outside
+ * the lock; other queries are served the previous snapshot meanwhile.
+ * Until the first rebuild the index is cold and every query returns an empty
+ * Optional so callers can fall back to the repository.
+ */
+public class FacetIndex<T> {
+
+    private final Function<T, String> idExtractor;
+    private final Map<String, Function<T, Collection<String>>> keywordFields = new LinkedHashMap<>();
+    private final Map<String, ToDoubleFunction<T>> numericFields = new LinkedHashMap<>();
+    private final Map<String, Long> bucketSizes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // held by the query building the next snapshot, so only one builds it at a time
+    private final Lock building = new ReentrantLock();
+
+    private Map<String, T> documents = new HashMap<>();
+    // writes made while a rebuild is loading, replayed onto its result
+    private Map<String, T> pendingWrites;
+    // counts the writes to documents; a snapshot is current if it has the same version
+    private volatile long version;
+    private volatile Snapshot<T> snapshot;
+    private volatile boolean warm;
+
+    public FacetIndex(Function<T, String> idExtractor) {
+        this.idExtractor = idExtractor;
+    }
+
+    /**
+     * Indexes a field with any number of values per document. Values match
+     * regardless of case and are counted per value.
+     */
+    public FacetIndex<T> keyword(String name, Function<T, Collection<String>> extractor) {
+        keywordFields.put(name, extractor);
+        return this;
+    }
+
+    /**
+     * Indexes a numeric field for range filters. Values are counted in buckets of
+     * the given size, e.g. per year or per whole rating point, each labeled with
+     * its lower bound.
+     */
+    public FacetIndex<T> numeric(String name, ToDoubleFunction<T> extractor, long bucketSize) {
+        numericFields.put(name, extractor);
+        bucketSizes.put(name, bucketSize);
+        return this;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Replaces the whole index with the documents the loader returns, and returns
+     * them so other indexes can be rebuilt from the same load. The new index is
+     * built outside the lock so queries keep being served meanwhile; puts and
+     * removes made after the load started are applied again when it is swapped in.
+     */
+    public synchronized <I extends Iterable<T>> I rebuild(Supplier<I> loader) {
+        long loaded;
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new HashMap<>();
+            loaded = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            I items = loader.get();
+            Map<String, T> newDocuments = new HashMap<>();
+            for (T item : items) {
+                String id = idExtractor.apply(item);
+                if (id != null) {
+                    newDocuments.put(id, item);
+                }
+            }
+            Snapshot<T> newSnapshot = new Snapshot<>(this, newDocuments.values(), loaded);
+
+            lock.writeLock().lock();
+            try {
+                documents = newDocuments;
+                pendingWrites.forEach((id, item) -> {
+                    if (item == null) {
+                        documents.remove(id);
+                    } else {
+                        documents.put(id, item);
+                    }
+                });
+                // writes made after the load started bumped the version, so the first query rebuilds the snapshot with them
+                snapshot = newSnapshot;
+                warm = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return items;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(T item) {
+        String id = idExtractor.apply(item);
+        if (id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents.put(id, item);
+            version++;
+            recordUnlocked(id, item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            if (documents.remove(id) != null) {
+                version++;
+            }
+            recordUnlocked(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the documents that match every criterion of the query, ordered by
+     * ID, with the facet counts of the matches, or an empty Optional when the
+     * index is cold.
+     */
+    public Optional<Result<T>> query(Query query) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        return Optional.of(current().query(query));
+    }
+
+    private void recordUnlocked(String id, T item) {
+        if (pendingWrites != null) {
+            // the latest write of a document wins, null for a removal
+            pendingWrites.put(id, item);
+        }
+    }
+
+    private Snapshot<T> current() {
+        Snapshot<T> current = snapshot;
+        if (current.version == version || !building.tryLock()) {
+            // another query is building the next snapshot; this one is served the previous
+            return current;
+        }
+
+        try {
+            // the first query after a batch of writes builds the snapshot for all of them
+            Map<String, T> source;
+            List<T> items;
+            long copied;
+            lock.readLock().lock();
+            try {
+                source = documents;
+                items = new ArrayList<>(source.values());
+                copied = version;
+            } finally {
+                lock.readLock().unlock();
+            }
+            Snapshot<T> next = new Snapshot<>(this, items, copied);
+
+            // writes made while it was built leave it behind the version, so the next query builds again;
+            // a rebuild that replaced the documents it was built from has swapped in a newer snapshot
+            lock.writeLock().lock();
+            try {
+                if (documents == source && snapshot.version < next.version) {
+                    snapshot = next;
+                }
+                return snapshot;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            building.unlock();
+        }
+    }
+
+    /**
+     * Query
+     *
+     * Criteria a document must all meet: at least one of the given values of a
+     * keyword field, numeric fields within their inclusive ranges and, if given,
+     * one of a set of IDs, e.g. the results of a text search.
+     */
+    public static class Query {
+
+        private final Map<String, List<String>> keywords = new LinkedHashMap<>();
+        private final Map<String, double[]> ranges = new LinkedHashMap<>();
+        private Collection<String> ids;
+
+        public Query ids(Collection<String> ids) {
+            this.ids = ids;
+            return this;
+        }
+
+        public Query keyword(String name, Collection<String> values) {
+            keywords.put(name, new ArrayList<>(values));
+            return this;
+        }
+
+        public Query range(String name, Optional<? extends Number> min, Optional<? extends Number> max) {
+            if (min.isPresent() || max.isPresent()) {
+                ranges.put(name, new double[] {
+                        min.map(Number::doubleValue).orElse(Double.NEGATIVE_INFINITY),
+                        max.map(Number::doubleValue).orElse(Double.POSITIVE_INFINITY) });
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Result
+     *
+     * Matching documents and, per indexed field, the number of matches with each
+     * value.
+     */
+    @Getter
+    public static class Result<T> {
+
+        private final List<T> matches;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Result(List<T> matches, Map<String, Map<String, Integer>> facets) {
+            this.matches = matches;
+            this.facets = facets;
+        }
+    }
+
+    private static final class Snapshot<T> {
+
+        private final long version;
+        private final List<T> documents;
+        private final Map<String, Integer> numbers = new HashMap<>();
+        private final Map<String, Map<String, BitSet>> keywords = new LinkedHashMap<>();
+        // original spelling of each lower-cased keyword value, for the facet counts
+        private final Map<String, Map<String, String>> labels = new LinkedHashMap<>();
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        Snapshot(FacetIndex<T> index, Collection<T> items, long version) {
+            this.version = version;
+            documents = new ArrayList<>(items);
+            documents.sort(Comparator.comparing(index.idExtractor));
+            for (int n = 0; n < documents.size(); n++) {
+                numbers.put(index.idExtractor.apply(documents.get(n)), n);
+            }
+
+            index.keywordFields.forEach((name, extractor) -> {
+                Map<String, BitSet> bitmaps = new HashMap<>();
+                Map<String, String> spellings = new HashMap<>();
+                for (int n = 0; n < documents.size(); n++) {
+                    Collection<String> values = extractor.apply(documents.get(n));
+                    if (values == null) {
+                        continue;
+                    }
+                    for (String value : values) {
+                        String key = value.toLowerCase(Locale.US);
+                        bitmaps.computeIfAbsent(key, k -> new BitSet(documents.size())).set(n);
+                        spellings.putIfAbsent(key, value);
+                    }
+                }
+                keywords.put(name, bitmaps);
+                labels.put(name, spellings);
+            });
+            index.numericFields.forEach((name, extractor) -> columns.put(name, new Column(documents, extractor, index.bucketSizes.get(name))));
+        }
+
+        Result<T> query(Query query) {
+            BitSet matches = new BitSet(documents.size());
+            if (query.ids == null) {
+                matches.set(0, documents.size());
+            } else {
+                query.ids.stream().map(numbers::get).filter(Objects::nonNull).forEach(matches::set);
+            }
+            query.keywords.forEach((name, values) -> {
+                BitSet any = new BitSet(documents.size());
+                for (String value : values) {
+                    BitSet bitmap = keywords.getOrDefault(name, Collections.emptyMap()).get(value.toLowerCase(Locale.US));
+                    if (bitmap != null) {
+                        any.or(bitmap);
+                    }
+                }
+                matches.and(any);
+            });
+            query.ranges.forEach((name, range) -> matches.and(columns.get(name).range(range[0], range[1], documents.size())));
+
+            List<T> results = new ArrayList<>(matches.cardinality());
+            for (int n = matches.nextSetBit(0); n >= 0; n = matches.nextSetBit(n + 1)) {
+                results.add(documents.get(n));
+            }
+            return new Result<>(results, facets(matches));
+        }
+
+        private Map<String, Map<String, Integer>> facets(BitSet matches) {
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            keywords.forEach((name, bitmaps) -> {
+                Map<String, Integer> counts = new TreeMap<>();
+                bitmaps.forEach((value, bitmap) -> {
+                    BitSet both = (BitSet) bitmap.clone();
+                    both.and(matches);
+                    if (!both.isEmpty()) {
+                        counts.put(labels.get(name).get(value), both.cardinality());
+                    }
+                });
+                facets.put(name, counts);
+            });
+            columns.forEach((name, column) -> facets.put(name, column.counts(matches)));
+            return facets;
+        }
+    }
+
+    /**
+     * Values of a numeric field sorted ascending, with the number of the
+     * document each one belongs to.
+     */
+    private static final class Column {
+
+        private final double[] values;
+        private final int[] documents;
+        private final double[] byDocument;
+        private final long bucketSize;
+
+        <T> Column(List<T> items, ToDoubleFunction<T> extractor, long bucketSize) {
+            this.bucketSize = bucketSize;
+            byDocument = new double[items.size()];
+            for (int n = 0; n < items.size(); n++) {
+                byDocument[n] = extractor.applyAsDouble(items.get(n));
+            }
+
+            documents = IntStream.range(0, byDocument.length)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(n -> byDocument[n]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            values = new double[documents.length];
+            for (int n = 0; n < documents.length; n++) {
+                values[n] = byDocument[documents[n]];
+            }
+        }
+
+        BitSet range(double min, double max, int size) {
+            BitSet bits = new BitSet(size);
+            for (int n = lowerBound(values, min); n < values.length && values[n] <= max; n++) {
+                bits.set(documents[n]);
+            }
+            return bits;
+        }
+
+        Map<String, Integer> counts(BitSet matches) {
+            Map<Long, Integer> counts = new TreeMap<>();
+            for (int n = matches.nextSetBit(0); n >= 0; n = matches.nextSetBit(n + 1)) {
+                counts.merge((long) Math.floor(byDocument[n] / bucketSize) * bucketSize, 1, Integer::sum);
+            }
+            Map<String, Integer> labeled = new LinkedHashMap<>();
+            counts.forEach((value, count) -> labeled.put(String.valueOf(value), count));
+            return labeled;
+        }
+
+        private static int lowerBound(double[] values, double min) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < min) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.microsoft.azure.helium.app.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * NGramIndex
+ *
+ * In-memory trigram inverted index over a document text field. Answers the
+ * same substring queries as a Cosmos DB CONTAINS filter without leaving the
+ * process. Until the first rebuild the index is cold and every search returns
+ * an empty Optional so callers can fall back to the repository.
+ */
+public class NGramIndex<T> {
+
+    static final int GRAM_SIZE = 3;
+
+    private final Function<T, String> idExtractor;
+    private final Function<T, String> textExtractor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, T> documents = new HashMap<>();
+    private Map<String, String> texts = new HashMap<>();
+    private Map<String, Set<String>> postings = new HashMap<>();
+    // writes made while a rebuild is loading, replayed onto its result
+    private Map<String, T> pendingWrites;
+    private volatile boolean warm;
+
+    public NGramIndex(Function<T, String> idExtractor, Function<T, String> textExtractor) {
+        this.idExtractor = idExtractor;
+        this.textExtractor = textExtractor;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the documents the loader returns, and returns
+     * them so other indexes can be rebuilt from the same load. The new index is
+     * built outside the lock so searches keep being served meanwhile. Puts and
+     * removes made after the load started may be missing from what it read, so
+     * they are recorded and applied again to the new index when it is swapped in.
+     */
+    public synchronized <I extends Iterable<T>> I rebuild(Supplier<I> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            I items = loader.get();
+            Map<String, T> newDocuments = new HashMap<>();
+            Map<String, String> newTexts = new HashMap<>();
+            Map<String, Set<String>> newPostings = new HashMap<>();
+            for (T item : items) {
+                add(item, newDocuments, newTexts, newPostings);
+            }
+
+            lock.writeLock().lock();
+            try {
+                documents = newDocuments;
+                texts = newTexts;
+                postings = newPostings;
+                pendingWrites.forEach((id, item) -> {
+                    removeUnlocked(id);
+                    if (item != null) {
+                        add(item, documents, texts, postings);
+                    }
+                });
+                warm = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return items;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(T item) {
+        String id = idExtractor.apply(item);
+        if (id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            add(item, documents, texts, postings);
+            recordUnlocked(id, item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            recordUnlocked(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every document whose text contains the query, ordered by ID, or an
+     * empty Optional when the index is cold.
+     */
+    public Optional<List<T>> search(String query) {
+        if (!warm) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Iterable<String> candidates = query.length() < GRAM_SIZE ? texts.keySet() : candidates(query);
+            List<String> ids = new ArrayList<>();
+            for (String id : candidates) {
+                if (texts.get(id).contains(query)) {
+                    ids.add(id);
+                }
+            }
+
+            Collections.sort(ids);
+            List<T> results = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                results.add(documents.get(id));
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Smallest posting list among the query grams. Every match must appear in it,
+     * and candidates are verified against the full text afterwards.
+     */
+    private Set<String> candidates(String query) {
+        Set<String> smallest = null;
+        for (String gram : grams(query)) {
+            Set<String> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private void add(T item, Map<String, T> documents, Map<String, String> texts, Map<String, Set<String>> postings) {
+        String id = idExtractor.apply(item);
+        if (id == null) {
+            return;
+        }
+
+        String text = textExtractor.apply(item);
+        if (text == null) {
+            text = "";
+        }
+
+        documents.put(id, item);
+        texts.put(id, text);
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void recordUnlocked(String id, T item) {
+        if (pendingWrites != null) {
+            // the latest write of a document wins, null for a removal
+            pendingWrites.put(id, item);
+        }
+    }
+
+    private void removeUnlocked(String id) {
+        documents.remove(id);
+        String text = texts.remove(id);
+        if (text == null) {
+            return;
+        }
+
+        for (String gram : grams(text)) {
+            Set<String> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
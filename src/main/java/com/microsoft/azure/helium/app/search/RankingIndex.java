@@ -0,0 +1,188 @@
+package com.microsoft.azure.helium.app.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * RankingIndex
+ *
+ * In-memory rankings of documents, one per bucket a document belongs to, e.g.
+ * all movies, the movies of a genre or of a year. Each ranking is kept sorted as
+ * documents are put and removed, so the top entries of any bucket are read
+ * without sorting, in time proportional to the number returned. Until the first
+ * rebuild the index is cold and every lookup returns an empty Optional so
+ * callers can fall back to the repository.
+ */
+public class RankingIndex<T> {
+
+    private final Function<T, String> idExtractor;
+    private final Function<T, Collection<String>> bucketsExtractor;
+    private final Comparator<T> order;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, T> documents = new HashMap<>();
+    private Map<String, NavigableSet<T>> rankings = new HashMap<>();
+    // writes made while a rebuild is loading, replayed onto its result
+    private Map<String, T> pendingWrites;
+    private volatile boolean warm;
+
+    /**
+     * Creates an index that ranks documents by the given order, ties broken by ID.
+     */
+    public RankingIndex(Function<T, String> idExtractor, Function<T, Collection<String>> bucketsExtractor, Comparator<T> order) {
+        this.idExtractor = idExtractor;
+        this.bucketsExtractor = bucketsExtractor;
+        this.order = order.thenComparing(idExtractor);
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Replaces the whole index with the documents the loader returns, and returns
+     * them so other indexes can be rebuilt from the same load. The new index is
+     * built outside the lock so lookups keep being served meanwhile; puts and
+     * removes made after the load started are applied again when it is swapped in.
+     */
+    public synchronized <I extends Iterable<T>> I rebuild(Supplier<I> loader) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            I items = loader.get();
+            Map<String, T> newDocuments = new HashMap<>();
+            Map<String, NavigableSet<T>> newRankings = new HashMap<>();
+            for (T item : items) {
+                String id = idExtractor.apply(item);
+                if (id != null) {
+                    // a later copy of the same document replaces the earlier one
+                    removeUnlocked(id, newDocuments, newRankings);
+                    add(id, item, newDocuments, newRankings);
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                documents = newDocuments;
+                rankings = newRankings;
+                pendingWrites.forEach((id, item) -> {
+                    removeUnlocked(id, documents, rankings);
+                    if (item != null) {
+                        add(id, item, documents, rankings);
+                    }
+                });
+                warm = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return items;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(T item) {
+        String id = idExtractor.apply(item);
+        if (id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id, documents, rankings);
+            add(id, item, documents, rankings);
+            recordUnlocked(id, item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id, documents, rankings);
+            recordUnlocked(id, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit of the highest ranked documents of the bucket, or an
+     * empty Optional when the index is cold.
+     */
+    public Optional<List<T>> top(String bucket, int limit) {
+        if (!warm) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            NavigableSet<T> ranking = rankings.get(bucket);
+            List<T> results = new ArrayList<>(ranking == null ? 0 : Math.min(limit, ranking.size()));
+            if (ranking != null) {
+                Iterator<T> iterator = ranking.iterator();
+                while (results.size() < limit && iterator.hasNext()) {
+                    results.add(iterator.next());
+                }
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void recordUnlocked(String id, T item) {
+        if (pendingWrites != null) {
+            // the latest write of a document wins, null for a removal
+            pendingWrites.put(id, item);
+        }
+    }
+
+    private void add(String id, T item, Map<String, T> documents, Map<String, NavigableSet<T>> rankings) {
+        documents.put(id, item);
+        for (String bucket : bucketsExtractor.apply(item)) {
+            rankings.computeIfAbsent(bucket, b -> new TreeSet<>(order)).add(item);
+        }
+    }
+
+    private void removeUnlocked(String id, Map<String, T> documents, Map<String, NavigableSet<T>> rankings) {
+        // the stored copy, as the rankings are sorted by its values
+        T item = documents.remove(id);
+        if (item == null) {
+            return;
+        }
+
+        for (String bucket : bucketsExtractor.apply(item)) {
+            NavigableSet<T> ranking = rankings.get(bucket);
+            if (ranking != null) {
+                ranking.remove(item);
+                if (ranking.isEmpty()) {
+                    rankings.remove(bucket);
+                }
+            }
+        }
+    }
+}
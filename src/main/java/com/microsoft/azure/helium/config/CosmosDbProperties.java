@@ -0,0 +1,78 @@
+package com.microsoft.azure.helium.config;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import com.microsoft.azure.documentdb.ConnectionMode;
+import com.microsoft.azure.documentdb.ConnectionPolicy;
+import com.microsoft.azure.documentdb.ConsistencyLevel;
+import com.microsoft.azure.documentdb.RetryOptions;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationUnit;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * CosmosDbProperties
+ *
+ * Connection settings of the Cosmos DB client. The defaults are the ones of the
+ * SDK, except that they are now visible and can be tuned per environment.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "helium.cosmosdb")
+public class CosmosDbProperties {
+
+    /**
+     * Gateway routes every request through the Cosmos DB gateway; DirectHttps
+     * talks to the replicas, saving a hop per request.
+     */
+    private ConnectionMode connectionMode = ConnectionMode.Gateway;
+
+    /**
+     * Maximum number of pooled HTTP connections. Requests beyond it wait for a
+     * connection to be released.
+     */
+    private int maxPoolSize = 100;
+
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration idleTimeout = Duration.ofSeconds(60);
+
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration requestTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Number of times a request throttled with 429 is retried before it fails.
+     */
+    private int throttledRetryAttempts = 9;
+
+    @DurationUnit(ChronoUnit.SECONDS)
+    private Duration throttledRetryMaxWait = Duration.ofSeconds(30);
+
+    /**
+     * Consistency level of the client. Unset uses the default level of the account;
+     * only levels weaker than it can be requested.
+     */
+    private ConsistencyLevel consistencyLevel;
+
+    /**
+     * Whether the client reports usage telemetry, which it collects on startup.
+     */
+    private boolean allowTelemetry = true;
+
+    public ConnectionPolicy toConnectionPolicy() {
+        RetryOptions retryOptions = new RetryOptions();
+        retryOptions.setMaxRetryAttemptsOnThrottledRequests(throttledRetryAttempts);
+        retryOptions.setMaxRetryWaitTimeInSeconds((int) throttledRetryMaxWait.getSeconds());
+
+        ConnectionPolicy policy = new ConnectionPolicy();
+        policy.setConnectionMode(connectionMode);
+        policy.setMaxPoolSize(maxPoolSize);
+        policy.setIdleConnectionTimeout((int) idleTimeout.getSeconds());
+        policy.setRequestTimeout((int) requestTimeout.getSeconds());
+        policy.setRetryOptions(retryOptions);
+        return policy;
+    }
+}
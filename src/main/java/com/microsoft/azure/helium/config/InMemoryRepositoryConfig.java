@@ -0,0 +1,87 @@
+package com.microsoft.azure.helium.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.genre.Genre;
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.inmemory.InMemoryActorsRepository;
+import com.microsoft.azure.helium.inmemory.InMemoryGenresRepository;
+import com.microsoft.azure.helium.inmemory.InMemoryMoviesRepository;
+import com.microsoft.azure.helium.inmemory.InMemoryRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+
+/**
+ * InMemoryRepositoryConfig
+ *
+ * Replaces the Cosmos DB repositories with in-memory ones when the inmemory
+ * profile is active, so the API can be load tested without a database. The
+ * repositories are seeded from a JSON file with one array of documents per
+ * collection, e.g. {"actors": [...], "movies": [...], "genres": [...]}.
+ */
+@Configuration
+@Profile(InMemoryRepositoryConfig.PROFILE)
+public class InMemoryRepositoryConfig {
+
+    public static final String PROFILE = "inmemory";
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${helium.inmemory.dataset:classpath:inmemory/dataset.json}")
+    private Resource dataset;
+
+    @Value("${helium.inmemory.latency:0}")
+    private long latency;
+
+    @Value("${helium.inmemory.latency-jitter:0}")
+    private long latencyJitter;
+
+    private JsonNode documents;
+
+    @Bean
+    public InMemoryActorsRepository actorsRepository() throws IOException {
+        return seed(new InMemoryActorsRepository(latency, latencyJitter), Constants.DEFAULT_ACTOR_COLLECTION_NAME, Actor.class);
+    }
+
+    @Bean
+    public InMemoryMoviesRepository moviesRepository() throws IOException {
+        return seed(new InMemoryMoviesRepository(latency, latencyJitter), Constants.DEFAULT_MOVIE_COLLECTION_NAME, Movie.class);
+    }
+
+    @Bean
+    public InMemoryGenresRepository genresRepository() throws IOException {
+        return seed(new InMemoryGenresRepository(latency, latencyJitter), Constants.DEFAULT_GENRE_COLLECTION_NAME, Genre.class);
+    }
+
+    private <T, R extends InMemoryRepository<T>> R seed(R repository, String collection, Class<T> type) throws IOException {
+        repository.saveAll(read(collection, type));
+        return repository;
+    }
+
+    private <T> List<T> read(String collection, Class<T> type) throws IOException {
+        if (documents == null) {
+            try (InputStream in = dataset.getInputStream()) {
+                documents = mapper.readTree(in);
+            }
+        }
+
+        JsonNode array = documents.path(collection);
+        if (array.isMissingNode()) {
+            return Collections.emptyList();
+        }
+        return mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, type)).readValue(array);
+    }
+}
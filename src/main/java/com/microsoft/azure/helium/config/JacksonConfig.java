@@ -0,0 +1,33 @@
+package com.microsoft.azure.helium.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.movie.Movie;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JacksonConfig
+ *
+ * The _etag of a document is assigned by Cosmos DB on every write and is only
+ * ever read from it. The application's own ObjectMapper, which binds request
+ * bodies, ignores it, so a client cannot hand in a stale one that would then be
+ * indexed and served as the ETag of the lists. Cosmos DB documents are read with
+ * the converter's own mapper and keep theirs.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer ignoreClientEtags() {
+        return builder -> builder
+                .mixIn(Movie.class, IgnoreEtag.class)
+                .mixIn(Actor.class, IgnoreEtag.class);
+    }
+
+    @JsonIgnoreProperties("_etag")
+    private abstract static class IgnoreEtag {
+    }
+}
@@ -0,0 +1,34 @@
+package com.microsoft.azure.helium.config;
+
+import com.microsoft.azure.helium.keyvault.KeyVaultSecrets;
+import com.microsoft.azure.helium.keyvault.KeyVaultSecretsPropertySource;
+import com.microsoft.azure.keyvault.spring.Constants;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.Assert;
+
+/**
+ * KeyVaultConfig
+ *
+ * Exposes the cached Key Vault secrets, which are created with the environment
+ * before the context, as a bean so their fetch latencies are published.
+ */
+@Configuration
+@ConditionalOnProperty(name = { Constants.AZURE_KEYVAULT_ENABLED, "helium.keyvault.cache.enabled" }, havingValue = "true")
+public class KeyVaultConfig {
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Bean
+    public KeyVaultSecrets keyVaultSecrets() {
+        PropertySource<?> source = environment.getPropertySources().get(Constants.AZURE_KEYVAULT_PROPERTYSOURCE_NAME);
+        Assert.state(source instanceof KeyVaultSecretsPropertySource, "Key Vault secrets were not resolved through the cache");
+        return ((KeyVaultSecretsPropertySource) source).getSource();
+    }
+}
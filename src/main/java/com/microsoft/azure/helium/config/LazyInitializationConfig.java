@@ -0,0 +1,52 @@
+package com.microsoft.azure.helium.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * LazyInitializationConfig
+ *
+ * Creates application beans on first use instead of at startup, enabled with
+ * helium.startup.lazy-initialization. Beans with scheduled tasks, such as the
+ * caches and the search index that are warmed in the background, and Spring's
+ * own infrastructure are still created eagerly so they are ready when the
+ * replica starts taking traffic.
+ */
+@Configuration
+@ConditionalOnProperty(name = "helium.startup.lazy-initialization", havingValue = "true")
+public class LazyInitializationConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitialization() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.getRole() == BeanDefinition.ROLE_APPLICATION && !hasScheduledTasks(definition, beanFactory)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean hasScheduledTasks(BeanDefinition definition, ConfigurableListableBeanFactory beanFactory) {
+        String className = definition.getBeanClassName();
+        if (className == null || !ClassUtils.isPresent(className, beanFactory.getBeanClassLoader())) {
+            return false;
+        }
+
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(ClassUtils.resolveClassName(className, beanFactory.getBeanClassLoader()),
+                method -> scheduled.set(true),
+                method -> method.isAnnotationPresent(Scheduled.class));
+        return scheduled.get();
+    }
+}
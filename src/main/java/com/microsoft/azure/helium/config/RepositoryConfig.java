@@ -1,17 +1,27 @@
 package com.microsoft.azure.helium.config;
 
+import com.microsoft.azure.documentdb.DocumentClient;
+import com.microsoft.azure.helium.cosmos.ChargeRecordingDocumentDbFactory;
+import com.microsoft.azure.helium.cosmos.ConnectionPoolMetrics;
+import com.microsoft.azure.spring.data.cosmosdb.DocumentDbFactory;
 import com.microsoft.azure.spring.data.cosmosdb.config.AbstractDocumentDbConfiguration;
 import com.microsoft.azure.spring.data.cosmosdb.config.DocumentDBConfig;
 import com.microsoft.azure.spring.data.cosmosdb.repository.config.EnableDocumentDbRepositories;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 /**
  * RepositoryConfig
  */
 @Configuration
+@Profile("!" + InMemoryRepositoryConfig.PROFILE)
 @EnableDocumentDbRepositories(basePackages = "com.microsoft.azure.helium.app.*")
+@EnableConfigurationProperties(CosmosDbProperties.class)
 public class RepositoryConfig extends AbstractDocumentDbConfiguration {
 
     @Value("${azure.cosmosdb.uri}")
@@ -23,8 +33,26 @@ public class RepositoryConfig extends AbstractDocumentDbConfiguration {
     @Value("${azure.cosmosdb.database}")
     private String dbName;
 
+    @Autowired
+    private CosmosDbProperties properties;
+
     @Override
     public DocumentDBConfig getConfig() {
-        return DocumentDBConfig.builder(uri, key, dbName).build();
+        return DocumentDBConfig.builder(uri, key, dbName)
+                .connectionPolicy(properties.toConnectionPolicy())
+                .consistencyLevel(properties.getConsistencyLevel())
+                .allowTelemetry(properties.isAllowTelemetry())
+                .build();
+    }
+
+    @Bean
+    @Override
+    public DocumentDbFactory documentDbFactory() {
+        return new ChargeRecordingDocumentDbFactory(getConfig());
+    }
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics(DocumentClient documentClient) {
+        return new ConnectionPoolMetrics(documentClient);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.microsoft.azure.helium.config;
+
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+import com.microsoft.azure.helium.web.RequestChargeFilter;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * RequestChargeConfig
+ */
+@Configuration
+public class RequestChargeConfig {
+
+    @Bean
+    public RequestChargeFilter requestChargeFilter(MeterRegistry registry) {
+        return new RequestChargeFilter(registry);
+    }
+
+    /**
+     * Carries the charge of a request over to the tasks Spring MVC hands to the
+     * application task executor, e.g. writing a streamed response, so the pages
+     * they read are charged to it.
+     */
+    @Bean
+    public TaskDecorator requestChargeTaskDecorator() {
+        return RequestCharge::wrap;
+    }
+}
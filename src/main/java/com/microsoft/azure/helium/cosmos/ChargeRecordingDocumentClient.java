@@ -0,0 +1,109 @@
+package com.microsoft.azure.helium.cosmos;
+
+import com.microsoft.azure.documentdb.ConnectionPolicy;
+import com.microsoft.azure.documentdb.ConsistencyLevel;
+import com.microsoft.azure.documentdb.Database;
+import com.microsoft.azure.documentdb.Document;
+import com.microsoft.azure.documentdb.DocumentClient;
+import com.microsoft.azure.documentdb.DocumentClientException;
+import com.microsoft.azure.documentdb.RequestOptions;
+import com.microsoft.azure.documentdb.Resource;
+import com.microsoft.azure.documentdb.ResourceResponse;
+
+/**
+ * ChargeRecordingDocumentClient
+ *
+ * DocumentClient that adds the charge of every document and database operation
+ * to the {@link RequestCharge} of the current request, including failed ones.
+ * Queries are charged by {@link DocumentQueries} as it fetches their pages.
+ */
+public class ChargeRecordingDocumentClient extends DocumentClient {
+
+    public ChargeRecordingDocumentClient(String serviceEndpoint, String masterKey, ConnectionPolicy connectionPolicy,
+            ConsistencyLevel desiredConsistencyLevel) {
+        super(serviceEndpoint, masterKey, connectionPolicy, desiredConsistencyLevel);
+    }
+
+    @Override
+    public ResourceResponse<Document> createDocument(String collectionLink, Object document, RequestOptions options,
+            boolean disableAutomaticIdGeneration) throws DocumentClientException {
+        try {
+            return charged(super.createDocument(collectionLink, document, options, disableAutomaticIdGeneration));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Document> upsertDocument(String collectionLink, Object document, RequestOptions options,
+            boolean disableAutomaticIdGeneration) throws DocumentClientException {
+        try {
+            return charged(super.upsertDocument(collectionLink, document, options, disableAutomaticIdGeneration));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Document> replaceDocument(String documentLink, Object document, RequestOptions options)
+            throws DocumentClientException {
+        try {
+            return charged(super.replaceDocument(documentLink, document, options));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Document> replaceDocument(Document document, RequestOptions options)
+            throws DocumentClientException {
+        try {
+            return charged(super.replaceDocument(document, options));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Document> deleteDocument(String documentLink, RequestOptions options)
+            throws DocumentClientException {
+        try {
+            return charged(super.deleteDocument(documentLink, options));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Document> readDocument(String documentLink, RequestOptions options)
+            throws DocumentClientException {
+        try {
+            return charged(super.readDocument(documentLink, options));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    @Override
+    public ResourceResponse<Database> readDatabase(String databaseLink, RequestOptions options)
+            throws DocumentClientException {
+        try {
+            return charged(super.readDatabase(databaseLink, options));
+        } catch (DocumentClientException ex) {
+            throw charged(ex);
+        }
+    }
+
+    private static <T extends Resource> ResourceResponse<T> charged(ResourceResponse<T> response) {
+        RequestCharge.record(response.getRequestCharge());
+        return response;
+    }
+
+    private static DocumentClientException charged(DocumentClientException ex) {
+        String charge = ex.getResponseHeaders() == null ? null : ex.getResponseHeaders().get(RequestCharge.HEADER_NAME);
+        if (charge != null) {
+            RequestCharge.record(Double.parseDouble(charge));
+        }
+        return ex;
+    }
+}
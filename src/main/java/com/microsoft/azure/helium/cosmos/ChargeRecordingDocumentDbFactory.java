@@ -0,0 +1,31 @@
+package com.microsoft.azure.helium.cosmos;
+
+import com.microsoft.azure.documentdb.DocumentClient;
+import com.microsoft.azure.spring.data.cosmosdb.DocumentDbFactory;
+import com.microsoft.azure.spring.data.cosmosdb.config.DocumentDBConfig;
+
+/**
+ * ChargeRecordingDocumentDbFactory
+ *
+ * Hands the template and the application the same {@link ChargeRecordingDocumentClient},
+ * where the default factory would open a separate client and connection pool
+ * for each caller.
+ */
+public class ChargeRecordingDocumentDbFactory extends DocumentDbFactory {
+
+    private DocumentClient documentClient;
+
+    public ChargeRecordingDocumentDbFactory(DocumentDBConfig config) {
+        super(config);
+    }
+
+    @Override
+    public synchronized DocumentClient getDocumentClient() {
+        if (documentClient == null) {
+            DocumentDBConfig config = getConfig();
+            documentClient = new ChargeRecordingDocumentClient(config.getUri(), config.getKey(),
+                    config.getConnectionPolicy(), config.getConsistencyLevel());
+        }
+        return documentClient;
+    }
+}
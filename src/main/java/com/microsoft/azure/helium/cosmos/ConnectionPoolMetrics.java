@@ -0,0 +1,87 @@
+package com.microsoft.azure.helium.cosmos;
+
+import java.lang.reflect.Field;
+import java.util.function.ToDoubleFunction;
+
+import com.microsoft.azure.documentdb.DocumentClient;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * ConnectionPoolMetrics
+ *
+ * Publishes the state of the HTTP connection pool of the Cosmos DB client as
+ * cosmosdb.connections gauges. Pending connections are requests waiting for the
+ * pool, the usual cause of tail latency when a burst exceeds the pool size. The
+ * SDK keeps its pool private, so it is read by reflection; in direct mode this is
+ * the pool used for gateway and metadata requests. If an SDK version no longer
+ * has the field, a warning is logged and no gauges are published.
+ */
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private static final String POOL_FIELD = "poolingHttpClientConnectionManager";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMetrics.class);
+
+    private final PoolingHttpClientConnectionManager pool;
+
+    public ConnectionPoolMetrics(DocumentClient client) {
+        this(client, POOL_FIELD);
+    }
+
+    ConnectionPoolMetrics(DocumentClient client, String fieldName) {
+        this.pool = pool(client, fieldName);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (pool == null) {
+            return;
+        }
+
+        gauge(registry, "leased", "Connections in use by a request", PoolStats::getLeased);
+        gauge(registry, "available", "Idle connections ready to be leased", PoolStats::getAvailable);
+        gauge(registry, "pending", "Requests waiting for a connection", PoolStats::getPending);
+        Gauge.builder("cosmosdb.connections.max", pool, p -> p.getTotalStats().getMax())
+                .description("Maximum number of connections in the pool")
+                .baseUnit("connections")
+                .register(registry);
+    }
+
+    private static PoolingHttpClientConnectionManager pool(DocumentClient client, String fieldName) {
+        Field field = ReflectionUtils.findField(DocumentClient.class, fieldName, PoolingHttpClientConnectionManager.class);
+        if (field == null) {
+            logger.warn("DocumentClient has no field {} of type PoolingHttpClientConnectionManager, not publishing connection pool metrics", fieldName);
+            return null;
+        }
+
+        Object pool;
+        try {
+            ReflectionUtils.makeAccessible(field);
+            pool = ReflectionUtils.getField(field, client);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to read the connection pool of DocumentClient, not publishing connection pool metrics", ex);
+            return null;
+        }
+        if (pool == null) {
+            logger.warn("DocumentClient has no connection pool in field {}, not publishing connection pool metrics", fieldName);
+        }
+        return (PoolingHttpClientConnectionManager) pool;
+    }
+
+    private void gauge(MeterRegistry registry, String state, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("cosmosdb.connections", pool, p -> value.applyAsDouble(p.getTotalStats()))
+                .description(description)
+                .tag("state", state)
+                .baseUnit("connections")
+                .register(registry);
+    }
+}
@@ -0,0 +1,252 @@
+package com.microsoft.azure.helium.cosmos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.microsoft.azure.documentdb.Document;
+import com.microsoft.azure.documentdb.DocumentClient;
+import com.microsoft.azure.documentdb.DocumentClientException;
+import com.microsoft.azure.documentdb.FeedOptions;
+import com.microsoft.azure.documentdb.FeedResponse;
+import com.microsoft.azure.documentdb.PartitionKey;
+import com.microsoft.azure.documentdb.QueryIterable;
+import com.microsoft.azure.documentdb.RequestOptions;
+import com.microsoft.azure.documentdb.ResourceResponse;
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.documentdb.StoredProcedure;
+import com.microsoft.azure.documentdb.StoredProcedureResponse;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.config.InMemoryRepositoryConfig;
+import com.microsoft.azure.spring.data.cosmosdb.core.DocumentDbOperations;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+import com.microsoft.azure.spring.data.cosmosdb.exception.DocumentDBAccessException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * DocumentQueries
+ *
+ * Direct access to the Cosmos DB client for the operations Spring Data does not
+ * expose, such as consuming a query one result page at a time or reading a
+ * document with an explicit partition key. Every query of the repositories runs
+ * here, because only a caller that fetches the pages can charge each of them.
+ */
+@Component
+@Profile("!" + InMemoryRepositoryConfig.PROFILE)
+public class DocumentQueries {
+
+    private static final String BULK_UPSERT = "bulkUpsert";
+
+    @Autowired
+    private DocumentClient documentClient;
+
+    @Autowired
+    private DocumentDbOperations operations;
+
+    @Value("${azure.cosmosdb.database}")
+    private String dbName;
+
+    // collections the bulk upsert script has been installed in by this process
+    private final Set<String> bulkUpsertInstalled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Runs the query and hands each result page to the consumer as soon as Cosmos
+     * DB returns it, so at most one page is held in memory at a time.
+     */
+    public <T> void forEachPage(Class<T> type, SqlQuerySpec query, int pageSize, Consumer<List<T>> consumer) {
+        forEachPage(type, query, pageSize, document -> operations.getConverter().read(type, document), consumer);
+    }
+
+    /**
+     * Like {@link #forEachPage(Class, SqlQuerySpec, int, Consumer)}, for queries
+     * whose results are not whole documents, e.g. projections.
+     */
+    public <T> void forEachPage(Class<?> type, SqlQuerySpec query, int pageSize, Function<Document, T> reader, Consumer<List<T>> consumer) {
+        FeedResponse<Document> feed = documentClient.queryDocuments(collectionLink(type), query, options(pageSize, null));
+        QueryIterable<Document> results = feed.getQueryIterable();
+        try {
+            List<Document> block = results.fetchNextBlock();
+            while (block != null && !block.isEmpty()) {
+                RequestCharge.record(feed.getRequestCharge());
+                consumer.accept(read(block, reader));
+                block = results.fetchNextBlock();
+            }
+        } catch (DocumentClientException ex) {
+            throw new DocumentDBAccessException("forEachPage exception", ex);
+        }
+    }
+
+    /**
+     * Runs the query and returns all of its results. Unlike the feeds Spring Data
+     * reads, every page is charged to the current request as it is fetched.
+     */
+    public <T> List<T> list(Class<T> type, SqlQuerySpec query) {
+        List<T> results = new ArrayList<>();
+        forEachPage(type, query, Constants.MAX_PAGE_SIZE, results::addAll);
+        return results;
+    }
+
+    /**
+     * Like {@link #page(Class, SqlQuerySpec, DocumentDbPageRequest, Function)}, for
+     * queries that return whole documents.
+     */
+    public <T> Page<T> page(Class<T> type, SqlQuerySpec query, Pageable pageable) {
+        DocumentDbPageRequest request = pageable instanceof DocumentDbPageRequest
+                ? (DocumentDbPageRequest) pageable
+                : DocumentDbPageRequest.of(0, pageable.getPageSize(), (String) null);
+        return page(type, query, request, document -> operations.getConverter().read(type, document));
+    }
+
+    /**
+     * Runs the query for a single page, resuming from the continuation token in
+     * the page request. The returned page carries the token of the next one.
+     */
+    public <T> Page<T> page(Class<?> type, SqlQuerySpec query, DocumentDbPageRequest pageable, Function<Document, T> reader) {
+        FeedResponse<Document> feed = documentClient.queryDocuments(collectionLink(type), query,
+                options(pageable.getPageSize(), pageable.getRequestContinuation()));
+        try {
+            List<Document> block = feed.getQueryIterable().fetchNextBlock();
+            RequestCharge.record(feed.getRequestCharge());
+            List<T> content = block == null ? new ArrayList<>() : read(block, reader);
+            DocumentDbPageRequest next = DocumentDbPageRequest.of(0, pageable.getPageSize(), feed.getResponseContinuation());
+            return new PageImpl<>(content, next, content.size());
+        } catch (DocumentClientException ex) {
+            throw new DocumentDBAccessException("page exception", ex);
+        }
+    }
+
+    /**
+     * Reads a single document by ID and partition key. This is the cheapest
+     * operation Cosmos DB offers and never fans out across partitions.
+     */
+    public <T> Optional<T> pointRead(Class<T> type, String id, String partitionKey) {
+        RequestOptions options = new RequestOptions();
+        options.setPartitionKey(new PartitionKey(partitionKey));
+        try {
+            Document document = documentClient.readDocument(collectionLink(type) + "/docs/" + id, options).getResource();
+            return Optional.ofNullable(document).map(d -> operations.getConverter().read(type, d));
+        } catch (DocumentClientException ex) {
+            if (ex.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                return Optional.empty();
+            }
+            throw new DocumentDBAccessException("pointRead exception", ex);
+        }
+    }
+
+    /**
+     * Writes the entity and returns the document Cosmos DB stored, so the caller
+     * sees the system properties it assigned, such as a fresh ETag, rather than
+     * whatever the entity carried in.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T upsert(T entity, String partitionKey) {
+        RequestOptions options = new RequestOptions();
+        options.setPartitionKey(new PartitionKey(partitionKey));
+        try {
+            ResourceResponse<Document> response = documentClient.upsertDocument(collectionLink(entity.getClass()),
+                    operations.getConverter().writeDoc(entity), options, true);
+            RequestCharge.record(response.getRequestCharge());
+            return (T) operations.getConverter().read(entity.getClass(), response.getResource());
+        } catch (DocumentClientException ex) {
+            throw new DocumentDBAccessException("upsert exception", ex);
+        }
+    }
+
+    /**
+     * Writes documents that share a partition key with the bulk upsert stored
+     * procedure, so a whole batch costs one round trip instead of one per document,
+     * and returns the stored copies in the same order. A script execution that
+     * runs out of time returns early and the rest of the batch is sent again.
+     * Writes are transactional per execution only: if one fails, the documents
+     * written by earlier executions stay written.
+     */
+    public <T> List<T> upsertAll(Class<T> type, String partitionKey, List<T> entities) {
+        String collectionLink = collectionLink(type);
+        installBulkUpsert(collectionLink);
+
+        RequestOptions options = new RequestOptions();
+        options.setPartitionKey(new PartitionKey(partitionKey));
+        List<T> written = new ArrayList<>(entities.size());
+        try {
+            while (written.size() < entities.size()) {
+                JSONArray documents = new JSONArray();
+                for (T entity : entities.subList(written.size(), entities.size())) {
+                    documents.put(new JSONObject(operations.getConverter().writeDoc(entity).toJson()));
+                }
+                StoredProcedureResponse response = documentClient.executeStoredProcedure(collectionLink + "/sprocs/" + BULK_UPSERT,
+                        options, new Object[] { new JSONObject().put("documents", documents) });
+                RequestCharge.record(response.getRequestCharge());
+
+                JSONArray stored = new JSONArray(response.getResponseAsString());
+                if (stored.length() == 0) {
+                    throw new DocumentDBAccessException("upsertAll made no progress");
+                }
+                for (int i = 0; i < stored.length(); i++) {
+                    written.add(operations.getConverter().read(type, new Document(stored.getJSONObject(i).toString())));
+                }
+            }
+        } catch (DocumentClientException ex) {
+            throw new DocumentDBAccessException("upsertAll exception", ex);
+        }
+        return written;
+    }
+
+    public String collectionLink(Class<?> type) {
+        return String.format("dbs/%s/colls/%s", dbName, operations.getCollectionName(type));
+    }
+
+    private void installBulkUpsert(String collectionLink) {
+        if (bulkUpsertInstalled.contains(collectionLink)) {
+            return;
+        }
+
+        // an upsert, so a changed script replaces the one a previous version installed
+        StoredProcedure procedure = new StoredProcedure();
+        procedure.setId(BULK_UPSERT);
+        try (InputStream script = new ClassPathResource("cosmos/" + BULK_UPSERT + ".js").getInputStream()) {
+            procedure.setBody(StreamUtils.copyToString(script, StandardCharsets.UTF_8));
+            documentClient.upsertStoredProcedure(collectionLink, procedure, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (DocumentClientException ex) {
+            throw new DocumentDBAccessException("installBulkUpsert exception", ex);
+        }
+        bulkUpsertInstalled.add(collectionLink);
+    }
+
+    private static FeedOptions options(int pageSize, String continuation) {
+        FeedOptions options = new FeedOptions();
+        options.setPageSize(pageSize);
+        options.setEnableCrossPartitionQuery(true);
+        options.setRequestContinuation(continuation);
+        return options;
+    }
+
+    private static <T> List<T> read(List<Document> block, Function<Document, T> reader) {
+        List<T> page = new ArrayList<>(block.size());
+        for (Document document : block) {
+            page.add(reader.apply(document));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,70 @@
+package com.microsoft.azure.helium.cosmos;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * RequestCharge
+ *
+ * Sum of the request units (RUs) Cosmos DB charged while serving one HTTP
+ * request. The charge of the request being served is bound to the current
+ * thread; {@link #wrap} carries it over to tasks handed to other threads.
+ *
+ * Single-document operations are charged as they complete. Feeds are charged
+ * page by page by {@link DocumentQueries}, because the SDK only reports the
+ * charge of the page a feed fetched last.
+ */
+public final class RequestCharge {
+
+    public static final String HEADER = "X-Request-Charge";
+    public static final String HEADER_NAME = "x-ms-request-charge";
+
+    private static final ThreadLocal<RequestCharge> CURRENT = new ThreadLocal<>();
+
+    private final DoubleAdder charge = new DoubleAdder();
+
+    public static RequestCharge current() {
+        return CURRENT.get();
+    }
+
+    public static void attach(RequestCharge requestCharge) {
+        CURRENT.set(requestCharge);
+    }
+
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns a task that runs with the charge of the calling thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestCharge captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            RequestCharge previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public static void record(double requestUnits) {
+        RequestCharge current = CURRENT.get();
+        if (current != null) {
+            current.charge.add(requestUnits);
+        }
+    }
+
+    public double total() {
+        return charge.sum();
+    }
+}
@@ -1,29 +1,59 @@
 package com.microsoft.azure.helium.health;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import com.microsoft.azure.documentdb.Database;
 import com.microsoft.azure.documentdb.DocumentClient;
 import com.microsoft.azure.documentdb.DocumentClientException;
 import com.microsoft.azure.documentdb.RequestOptions;
 import com.microsoft.azure.documentdb.ResourceResponse;
+import com.microsoft.azure.helium.config.InMemoryRepositoryConfig;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Health.Builder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 /**
  * CosmosDbHealthIndicator
+ *
+ * Readiness check for Cosmos DB. The database is read on a background schedule
+ * and probes are answered from the last result, so probe traffic costs no RUs
+ * and never waits on the network. A result older than the maximum age is
+ * reported as down in case the background check itself is stuck. The check runs
+ * on its own thread rather than Spring's single scheduler thread, where a long
+ * search index rebuild would delay it past the maximum age.
  */
 @Component
-public class CosmosDbHealthIndicator extends AbstractHealthIndicator {
+@Profile("!" + InMemoryRepositoryConfig.PROFILE)
+public class CosmosDbHealthIndicator extends AbstractHealthIndicator implements SmartLifecycle {
 
 	@Autowired
 	private DocumentClient documentClient;
 
+	@Value("${helium.health.cosmosdb.interval:10000}")
+	private long interval = 10000;
+
+	@Value("${helium.health.cosmosdb.max-age:60000}")
+	private long maxAge = 60000;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("cosmosdb-health-"));
+
+	private volatile ScheduledFuture<?> checks;
+
 	private String dbName;
 
+	private volatile CheckResult lastResult;
+
 	public CosmosDbHealthIndicator(@Value("${azure.cosmosdb.database}") String dbName) {
 		super();
 		this.dbName = dbName;
@@ -31,21 +61,95 @@ public class CosmosDbHealthIndicator extends AbstractHealthIndicator {
 
 	@Override
 	protected void doHealthCheck(Builder builder) throws DocumentClientException {
+		CheckResult result = lastResult;
+		if (result == null) {
+			// first probe before the first scheduled check
+			result = check();
+		}
+
+		long age = System.currentTimeMillis() - result.checkedAt;
+		if (age > maxAge) {
+			builder.down().withDetail("Error", "The last check is older than " + maxAge + " ms");
+		} else {
+			builder.status(result.health.getStatus());
+		}
+		builder.withDetails(result.health.getDetails()).withDetail("ageMs", age).build();
+	}
+
+	public void refresh() {
+		check();
+	}
+
+	@Override
+	public void start() {
+		checks = scheduler.scheduleWithFixedDelay(this::refresh, 0, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void stop() {
+		scheduler.shutdownNow();
+	}
+
+	@Override
+	public void stop(Runnable callback) {
+		stop();
+		callback.run();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return checks != null && !scheduler.isShutdown();
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		// started even when beans are created lazily, so the first probe finds a result
+		return true;
+	}
+
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+	protected int getStatusCode(String dbName) throws DocumentClientException {
+		ResourceResponse<Database> response = this.documentClient.readDatabase("dbs/" + dbName, new RequestOptions());
+		return response.getStatusCode();
+	}
+
+	private CheckResult check() {
+		Builder builder = new Builder();
+		long start = System.nanoTime();
 		try {
 			int statusCode = getStatusCode(dbName);
 			if (HttpStatus.valueOf(statusCode).is2xxSuccessful()) {
-				builder.up().build();
+				builder.up();
 			} else {
-				builder.down().withDetail("Error Code", statusCode).build();
+				builder.down().withDetail("Error Code", statusCode);
 			}
 		} catch (Exception ex) {
-			builder.down().withDetail("Error", ex.getMessage()).build();
+			builder.down().withDetail("Error", ex.getMessage());
 		}
+		builder.withDetail("latencyMs", (System.nanoTime() - start) / 1000000);
+
+		CheckResult result = new CheckResult(builder.build(), System.currentTimeMillis());
+		lastResult = result;
+		return result;
 	}
 
-	protected int getStatusCode(String dbName) throws DocumentClientException {
-		ResourceResponse<Database> response = this.documentClient.readDatabase("dbs/" + dbName, new RequestOptions());
-		return response.getStatusCode();
+	private static CustomizableThreadFactory daemonThreads(String prefix) {
+		CustomizableThreadFactory threads = new CustomizableThreadFactory(prefix);
+		threads.setDaemon(true);
+		return threads;
 	}
 
-}
\ No newline at end of file
+	private static final class CheckResult {
+		private final Health health;
+		private final long checkedAt;
+
+		private CheckResult(Health health, long checkedAt) {
+			this.health = health;
+			this.checkedAt = checkedAt;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.microsoft.azure.helium.health;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health.Builder;
+import org.springframework.stereotype.Component;
+
+/**
+ * LivenessHealthIndicator
+ *
+ * Served at /healthz/liveness. It only shows that the process answers HTTP and
+ * deliberately ignores Cosmos DB, so a slow database takes the pod out of
+ * rotation through readiness (/healthz) without getting it restarted.
+ */
+@Component
+public class LivenessHealthIndicator extends AbstractHealthIndicator {
+
+	@Override
+	protected void doHealthCheck(Builder builder) {
+		builder.up().withDetail("uptimeMs", ManagementFactory.getRuntimeMXBean().getUptime()).build();
+	}
+}
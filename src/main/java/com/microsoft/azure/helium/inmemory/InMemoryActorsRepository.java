@@ -0,0 +1,81 @@
+package com.microsoft.azure.helium.inmemory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsRepository;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * InMemoryActorsRepository
+ */
+public class InMemoryActorsRepository extends InMemoryRepository<Actor> implements ActorsRepository {
+
+    public InMemoryActorsRepository(long latency, long latencyJitter) {
+        super(Actor::getId, latency, latencyJitter);
+    }
+
+    @Override
+    public List<Actor> findByActorId(String actorId) {
+        return filter(actor -> actorId.equals(actor.getActorId()));
+    }
+
+    @Override
+    public List<Actor> findByTextSearchContaining(String actorName) {
+        return filter(textSearchContaining(actorName));
+    }
+
+    @Override
+    public Page<Actor> findByTextSearchContaining(String actorName, Pageable pageable) {
+        return page(filter(textSearchContaining(actorName)), pageable);
+    }
+
+    @Override
+    public Optional<Actor> pointReadByActorId(String actorId) {
+        // the document ID is the actor ID
+        return findById(actorId);
+    }
+
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<Actor>> consumer) {
+        forEachPage(actor -> true, pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String actorName, int pageSize, Consumer<List<Actor>> consumer) {
+        forEachPage(textSearchContaining(actorName), pageSize, consumer);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable) {
+        return page(filter(actor -> true), pageable).map(fields::project);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByTextSearchContaining(String actorName, Fields fields, DocumentDbPageRequest pageable) {
+        return page(filter(textSearchContaining(actorName)), pageable).map(fields::project);
+    }
+
+    @Override
+    public void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        forEachPage(actor -> true, pageSize, page -> consumer.accept(fields.projectAll(page)));
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String actorName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        forEachPage(textSearchContaining(actorName), pageSize, page -> consumer.accept(fields.projectAll(page)));
+    }
+
+    private static Predicate<Actor> textSearchContaining(String actorName) {
+        // CONTAINS is case sensitive in Cosmos DB as well
+        return actor -> actor.getTextSearch() != null && actor.getTextSearch().contains(actorName);
+    }
+}
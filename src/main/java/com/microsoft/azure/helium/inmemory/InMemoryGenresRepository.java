@@ -0,0 +1,14 @@
+package com.microsoft.azure.helium.inmemory;
+
+import com.microsoft.azure.helium.app.genre.Genre;
+import com.microsoft.azure.helium.app.genre.GenresRepository;
+
+/**
+ * InMemoryGenresRepository
+ */
+public class InMemoryGenresRepository extends InMemoryRepository<Genre> implements GenresRepository {
+
+    public InMemoryGenresRepository(long latency, long latencyJitter) {
+        super(Genre::getId, latency, latencyJitter);
+    }
+}
@@ -0,0 +1,137 @@
+package com.microsoft.azure.helium.inmemory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.app.movie.MovieFilter;
+import com.microsoft.azure.helium.app.movie.MoviesRepository;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * InMemoryMoviesRepository
+ */
+public class InMemoryMoviesRepository extends InMemoryRepository<Movie> implements MoviesRepository {
+
+    public InMemoryMoviesRepository(long latency, long latencyJitter) {
+        super(Movie::getId, latency, latencyJitter);
+    }
+
+    @Override
+    public List<Movie> findByMovieId(String movieId) {
+        return filter(movie -> movieId.equals(movie.getMovieId()));
+    }
+
+    @Override
+    public List<Movie> findByTextSearchContaining(String movieName) {
+        return filter(textSearchContaining(movieName));
+    }
+
+    @Override
+    public Page<Movie> findByTextSearchContaining(String movieName, Pageable pageable) {
+        return page(filter(textSearchContaining(movieName)), pageable);
+    }
+
+    @Override
+    public Page<Movie> findByFilter(MovieFilter filter, Optional<String> movieName, Pageable pageable) {
+        return page(filter(matching(filter, movieName)), pageable);
+    }
+
+    @Override
+    public List<Movie> findTopRated(Optional<String> genre, Optional<Integer> year, int limit) {
+        return filter(movie -> genre.map(g -> movie.getGenres() != null && movie.getGenres().stream().anyMatch(g::equalsIgnoreCase)).orElse(true)
+                && year.map(y -> (int) movie.getYear() == y).orElse(true))
+                .stream()
+                .sorted(Comparator.comparingDouble(Movie::getRating).reversed()
+                        .thenComparing(Comparator.comparingDouble(Movie::getVotes).reversed())
+                        .thenComparing(Movie::getMovieId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Movie> pointReadByMovieId(String movieId) {
+        // the document ID is the movie ID
+        return findById(movieId);
+    }
+
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<Movie>> consumer) {
+        forEachPage(movie -> true, pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String movieName, int pageSize, Consumer<List<Movie>> consumer) {
+        forEachPage(textSearchContaining(movieName), pageSize, consumer);
+    }
+
+    @Override
+    public void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, int pageSize, Consumer<List<Movie>> consumer) {
+        forEachPage(matching(filter, movieName), pageSize, consumer);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectAll(Fields fields, DocumentDbPageRequest pageable) {
+        return page(filter(movie -> true), pageable).map(fields::project);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByTextSearchContaining(String movieName, Fields fields, DocumentDbPageRequest pageable) {
+        return page(filter(textSearchContaining(movieName)), pageable).map(fields::project);
+    }
+
+    @Override
+    public Page<Map<String, Object>> selectByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, DocumentDbPageRequest pageable) {
+        return page(filter(matching(filter, movieName)), pageable).map(fields::project);
+    }
+
+    @Override
+    public void forEachPage(Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        forEachPage(movie -> true, pageSize, page -> consumer.accept(fields.projectAll(page)));
+    }
+
+    @Override
+    public void forEachPageByTextSearchContaining(String movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        forEachPage(textSearchContaining(movieName), pageSize, page -> consumer.accept(fields.projectAll(page)));
+    }
+
+    @Override
+    public void forEachPageByFilter(MovieFilter filter, Optional<String> movieName, Fields fields, int pageSize, Consumer<List<Map<String, Object>>> consumer) {
+        forEachPage(matching(filter, movieName), pageSize, page -> consumer.accept(fields.projectAll(page)));
+    }
+
+    private static Predicate<Movie> matching(MovieFilter filter, Optional<String> movieName) {
+        Predicate<Movie> matching = movieName.map(InMemoryMoviesRepository::textSearchContaining).orElse(movie -> true);
+        if (filter.getGenre() != null && !filter.getGenre().isEmpty()) {
+            matching = matching.and(movie -> movie.getGenres() != null
+                    && movie.getGenres().stream().anyMatch(genre -> filter.getGenre().stream().anyMatch(genre::equalsIgnoreCase)));
+        }
+        if (filter.getMinYear() != null) {
+            matching = matching.and(movie -> movie.getYear() >= filter.getMinYear());
+        }
+        if (filter.getMaxYear() != null) {
+            matching = matching.and(movie -> movie.getYear() <= filter.getMaxYear());
+        }
+        if (filter.getMinRating() != null) {
+            matching = matching.and(movie -> movie.getRating() >= filter.getMinRating());
+        }
+        if (filter.getMinVotes() != null) {
+            matching = matching.and(movie -> movie.getVotes() >= filter.getMinVotes());
+        }
+        return matching;
+    }
+
+    private static Predicate<Movie> textSearchContaining(String movieName) {
+        // CONTAINS is case sensitive in Cosmos DB as well
+        return movie -> movie.getTextSearch() != null && movie.getTextSearch().contains(movieName);
+    }
+}
@@ -0,0 +1,209 @@
+package com.microsoft.azure.helium.inmemory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.spring.data.cosmosdb.core.query.DocumentDbPageRequest;
+import com.microsoft.azure.spring.data.cosmosdb.repository.DocumentDbRepository;
+
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * InMemoryRepository
+ *
+ * Map-backed stand-in for a Cosmos DB collection. Documents are kept in ID order
+ * so paged reads are repeatable, and every call to the repository waits for the
+ * configured latency to approximate a round trip to the database.
+ */
+public abstract class InMemoryRepository<T> implements DocumentDbRepository<T, String> {
+
+    private static final String ETAG_FIELD = "etag";
+
+    private final ConcurrentSkipListMap<String, T> documents = new ConcurrentSkipListMap<>();
+    private final Function<T, String> idOf;
+    private final long latency;
+    private final long latencyJitter;
+
+    protected InMemoryRepository(Function<T, String> idOf, long latency, long latencyJitter) {
+        this.idOf = idOf;
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        roundTrip();
+        return put(entity);
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
+        roundTrip();
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(put(entity)));
+        return saved;
+    }
+
+    /**
+     * Saves documents of one partition key in a single round trip, like the bulk
+     * upsert stored procedure of Cosmos DB.
+     */
+    public List<T> saveBatch(String partitionKey, List<T> entities) {
+        roundTrip();
+        List<T> saved = new ArrayList<>(entities.size());
+        entities.forEach(entity -> saved.add(put(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        roundTrip();
+        return Optional.ofNullable(documents.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        roundTrip();
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return filter(document -> true);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        roundTrip();
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> Optional.ofNullable(documents.get(id)).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        roundTrip();
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        roundTrip();
+        documents.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf.apply(entity));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        roundTrip();
+        entities.forEach(entity -> documents.remove(idOf.apply(entity)));
+    }
+
+    @Override
+    public void deleteAll() {
+        roundTrip();
+        documents.clear();
+    }
+
+    @Override
+    public Iterable<T> findAll(Sort sort) {
+        Comparator<T> order = null;
+        for (Sort.Order property : sort) {
+            Comparator<T> next = new PropertyComparator<>(property.getProperty(), property.isIgnoreCase(), property.isAscending());
+            order = order == null ? next : order.thenComparing(next);
+        }
+
+        List<T> results = filter(document -> true);
+        if (order != null) {
+            // the sort is stable, so documents that compare equal stay in ID order
+            results.sort(order);
+        }
+        return results;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return page(filter(document -> true), pageable);
+    }
+
+    /**
+     * Returns the documents matching the predicate, in ID order.
+     */
+    protected List<T> filter(Predicate<T> predicate) {
+        roundTrip();
+        return documents.values().stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns one page of the results. Continuation tokens are offsets into the
+     * results, the same tokens the services issue for pages of the search index.
+     */
+    protected Page<T> page(List<T> results, Pageable pageable) {
+        if (pageable instanceof DocumentDbPageRequest) {
+            DocumentDbPageRequest request = (DocumentDbPageRequest) pageable;
+            if (!Pages.isOffset(request.getRequestContinuation())) {
+                throw new IllegalArgumentException("invalid continuation token");
+            }
+            return Pages.slice(results, request);
+        }
+        return Pages.slice(results, Pages.request(pageable.getPageSize(), String.valueOf(pageable.getOffset())));
+    }
+
+    /**
+     * Hands the documents matching the predicate to the consumer one page at a
+     * time, waiting for the latency before every page as Cosmos DB would.
+     */
+    protected void forEachPage(Predicate<T> predicate, int pageSize, Consumer<List<T>> consumer) {
+        List<T> results = filter(predicate);
+        for (int from = 0; from < results.size(); from += pageSize) {
+            if (from > 0) {
+                roundTrip();
+            }
+            consumer.accept(results.subList(from, Math.min(from + pageSize, results.size())));
+        }
+    }
+
+    private <S extends T> S put(S entity) {
+        String id = idOf.apply(entity);
+        Assert.notNull(id, "entity must have an id");
+        // like Cosmos DB, assign a new _etag on every write
+        DirectFieldAccessor accessor = new DirectFieldAccessor(entity);
+        if (accessor.isWritableProperty(ETAG_FIELD)) {
+            accessor.setPropertyValue(ETAG_FIELD, "\"" + UUID.randomUUID() + "\"");
+        }
+        documents.put(id, entity);
+        return entity;
+    }
+
+    private void roundTrip() {
+        long delay = latency + (latencyJitter > 0 ? ThreadLocalRandom.current().nextLong(latencyJitter + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.microsoft.azure.helium.keyvault;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * KeyVaultSecrets
+ *
+ * Refresh-ahead cache for Key Vault secrets. All secrets are fetched in parallel
+ * as soon as the environment is prepared, so their round trips overlap with each
+ * other and with the rest of startup, and a lookup only waits for the secret it
+ * needs. A background task fetches them again well before they expire, so lookups
+ * are served from memory and only block on Key Vault if a secret has never been
+ * fetched or every refresh failed for a whole TTL.
+ */
+public class KeyVaultSecrets implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyVaultSecrets.class);
+
+    private final Function<String, String> fetcher;
+    private final Supplier<Collection<String>> names;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final AsyncLoadingCache<String, String> cache;
+
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Creates a cache of the secrets the supplier names, fetched one at a time by
+     * the fetcher on up to the given number of threads.
+     */
+    public KeyVaultSecrets(Function<String, String> fetcher, Supplier<Collection<String>> names, int parallelism, long ttl) {
+        this.fetcher = fetcher;
+        this.names = names;
+        this.executor = Executors.newFixedThreadPool(parallelism, daemonThreads("keyvault-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("keyvault-refresh-"));
+        this.cache = Caffeine.newBuilder()
+                .executor(executor)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .buildAsync(this::fetch);
+    }
+
+    /**
+     * Starts fetching every secret in parallel and schedules the background
+     * refresh. Returns without waiting for Key Vault.
+     */
+    public void start(long refreshInterval) {
+        known.addAll(names.get());
+        long start = System.nanoTime();
+        CompletableFuture<?>[] fetches = known.stream().map(cache::get).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(fetches).whenComplete((ignored, ex) -> logger.info("Fetched {} secrets from Key Vault in {} ms ({})",
+                known.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), describeLatencies()));
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean contains(String name) {
+        return known.contains(name);
+    }
+
+    public Set<String> getNames() {
+        return known;
+    }
+
+    /**
+     * Returns the value of a secret, waiting for it only if it is still being
+     * fetched for the first time or has expired.
+     */
+    public String get(String name) {
+        try {
+            return cache.get(name).join();
+        } catch (CompletionException ex) {
+            // the failed fetch is not cached, so the next lookup tries again
+            throw new IllegalStateException("Failed to fetch secret " + name + " from Key Vault", ex.getCause());
+        }
+    }
+
+    /**
+     * Fetches every secret again in the background, including secrets added to
+     * the vault since the last refresh. A secret that fails to refresh keeps its
+     * current value until it expires.
+     */
+    public void refresh() {
+        try {
+            known.addAll(names.get());
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to list secrets in Key Vault", ex);
+        }
+        known.forEach(cache.synchronous()::refresh);
+    }
+
+    /**
+     * Returns how long the last fetch of each secret took in milliseconds.
+     */
+    public Map<String, Long> getLatencies() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        latencies.forEach((name, millis) -> result.put(name, millis.get()));
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : known) {
+            TimeGauge.builder("helium.keyvault.fetch", latency(name), TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .description("Duration of the last fetch of the secret from Key Vault")
+                    .tag("secret", name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("helium.keyvault.fetch.failures", failures, AtomicLong::get)
+                .description("Failed fetches of secrets from Key Vault")
+                .register(registry);
+    }
+
+    private String fetch(String name) {
+        long start = System.nanoTime();
+        try {
+            return fetcher.apply(name);
+        } catch (RuntimeException ex) {
+            failures.incrementAndGet();
+            throw ex;
+        } finally {
+            latency(name).set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private AtomicLong latency(String name) {
+        return latencies.computeIfAbsent(name, key -> new AtomicLong());
+    }
+
+    private String describeLatencies() {
+        List<String> parts = getLatencies().entrySet().stream()
+                .map(latency -> latency.getKey() + "=" + latency.getValue() + "ms")
+                .collect(Collectors.toList());
+        return String.join(", ", parts);
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory(prefix);
+        threads.setDaemon(true);
+        return threads;
+    }
+}
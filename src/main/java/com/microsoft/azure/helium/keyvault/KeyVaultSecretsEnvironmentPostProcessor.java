@@ -0,0 +1,46 @@
+package com.microsoft.azure.helium.keyvault;
+
+import java.util.Arrays;
+
+import com.microsoft.azure.keyvault.spring.Constants;
+import com.microsoft.azure.keyvault.spring.KeyVaultEnvironmentPostProcessor;
+import com.microsoft.azure.keyvault.spring.KeyVaultOperation;
+import com.microsoft.azure.keyvault.spring.KeyVaultPropertySource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * KeyVaultSecretsEnvironmentPostProcessor
+ *
+ * Replaces the property source of the Key Vault starter, which fetches a secret
+ * from the vault on every lookup, with one backed by {@link KeyVaultSecrets}.
+ * Registered in META-INF/spring.factories to run right after the starter.
+ */
+public class KeyVaultSecretsEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    public static final String CACHE_ENABLED = "helium.keyvault.cache.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        PropertySource<?> source = environment.getPropertySources().get(Constants.AZURE_KEYVAULT_PROPERTYSOURCE_NAME);
+        if (!(source instanceof KeyVaultPropertySource) || !environment.getProperty(CACHE_ENABLED, Boolean.class, true)) {
+            return;
+        }
+
+        KeyVaultOperation operation = ((KeyVaultPropertySource) source).getSource();
+        KeyVaultSecrets secrets = new KeyVaultSecrets(operation::get, () -> Arrays.asList(operation.list()),
+                environment.getProperty("helium.keyvault.parallelism", Integer.class, 8),
+                environment.getProperty("helium.keyvault.ttl", Long.class, 1800000L));
+        environment.getPropertySources().replace(source.getName(), new KeyVaultSecretsPropertySource(source.getName(), secrets));
+        secrets.start(environment.getProperty("helium.keyvault.refresh-interval", Long.class, 300000L));
+    }
+
+    @Override
+    public int getOrder() {
+        return KeyVaultEnvironmentPostProcessor.DEFAULT_ORDER + 1;
+    }
+}
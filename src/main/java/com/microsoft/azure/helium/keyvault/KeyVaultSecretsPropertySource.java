@@ -0,0 +1,47 @@
+package com.microsoft.azure.helium.keyvault;
+
+import java.util.Locale;
+
+import org.springframework.core.env.EnumerablePropertySource;
+
+/**
+ * KeyVaultSecretsPropertySource
+ *
+ * Resolves properties such as azure.cosmosdb.key from the cached Key Vault
+ * secrets. Properties that name no secret in the vault are answered without a
+ * round trip.
+ */
+public class KeyVaultSecretsPropertySource extends EnumerablePropertySource<KeyVaultSecrets> {
+
+    public KeyVaultSecretsPropertySource(String name, KeyVaultSecrets secrets) {
+        super(name, secrets);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return getSource().getNames().toArray(new String[0]);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        String secretName = toSecretName(name);
+        return getSource().contains(secretName) ? getSource().get(secretName) : null;
+    }
+
+    /**
+     * Maps a property name to a secret name the way the Key Vault starter does,
+     * e.g. azure.cosmosdb.key to azure-cosmosdb-key.
+     */
+    static String toSecretName(String property) {
+        if (property.matches("[a-z0-9A-Z-]+")) {
+            return property.toLowerCase(Locale.US);
+        }
+        if (property.matches("[A-Z0-9_]+")) {
+            return property.toLowerCase(Locale.US).replaceAll("_", "-");
+        }
+        return property.toLowerCase(Locale.US)
+                .replaceAll("-", "")
+                .replaceAll("_", "")
+                .replaceAll("\\.", "-");
+    }
+}
@@ -0,0 +1,81 @@
+package com.microsoft.azure.helium.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * LatencyMetricsAspect
+ *
+ * Times every call into the services and into the Cosmos DB repositories. The
+ * timers are tagged with the entity (the package of the service or repository),
+ * the operation (the method name) and the outcome, and publish percentile
+ * histograms so latency SLOs can be computed across replicas. Comparing the
+ * service and repository timers of one operation shows how much of its time is
+ * spent in Cosmos DB.
+ */
+@Aspect
+@Component
+public class LatencyMetricsAspect {
+
+    public static final String SERVICE_TIMER = "helium.service";
+    public static final String REPOSITORY_TIMER = "helium.repository";
+
+    private static final String APP_PACKAGE = "com.microsoft.azure.helium.app";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Around("execution(public * com.microsoft.azure.helium.app..*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, entityOf(joinPoint.getSignature().getDeclaringType()), joinPoint);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, entityOf(repositoryInterface(joinPoint.getTarget())), joinPoint);
+    }
+
+    private Object time(String name, String entity, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = "error";
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("entity", entity)
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Returns the application interface of a repository proxy, whose package
+     * names the entity.
+     */
+    private static Class<?> repositoryInterface(Object target) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(target.getClass())) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith(APP_PACKAGE)) {
+                return type;
+            }
+        }
+        return target.getClass();
+    }
+
+    private static String entityOf(Class<?> type) {
+        String packageName = ClassUtils.getPackageName(type);
+        return packageName.startsWith(APP_PACKAGE) ? packageName.substring(packageName.lastIndexOf('.') + 1) : "unknown";
+    }
+}
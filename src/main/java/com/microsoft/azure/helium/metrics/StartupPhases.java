@@ -0,0 +1,89 @@
+package com.microsoft.azure.helium.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * StartupPhases
+ *
+ * Measures how long each phase of startup takes, from the start of the JVM to
+ * the application being ready for traffic. The phases are logged once the
+ * application is ready and published as helium.startup gauges tagged with the
+ * phase. Registered in META-INF/spring.factories so it sees the events sent
+ * before the context exists.
+ */
+public class StartupPhases implements ApplicationListener<ApplicationEvent> {
+
+    public static final String STARTUP_GAUGE = "helium.startup";
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupPhases.class);
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long last = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            end("jvm", event);
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            end("environment", event);
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            end("context", event);
+        } else if (event instanceof ApplicationPreparedEvent) {
+            end("sources", event);
+        } else if (event instanceof ContextRefreshedEvent && phases.containsKey("sources") && !phases.containsKey("beans")) {
+            end("beans", event);
+        } else if (event instanceof WebServerInitializedEvent) {
+            end("web-server", event);
+        } else if (event instanceof ApplicationReadyEvent) {
+            end("runners", event);
+            ready(((ApplicationReadyEvent) event).getApplicationContext());
+        }
+    }
+
+    /**
+     * Returns the duration of each phase so far in milliseconds, in order.
+     */
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    private void end(String phase, ApplicationEvent event) {
+        phases.put(phase, event.getTimestamp() - last);
+        last = event.getTimestamp();
+    }
+
+    private void ready(ConfigurableApplicationContext context) {
+        long total = phases.values().stream().mapToLong(Long::longValue).sum();
+        logger.info("Ready for traffic {} ms after JVM start ({})", total, phases.entrySet().stream()
+                .map(phase -> phase.getKey() + "=" + phase.getValue() + "ms")
+                .collect(Collectors.joining(", ")));
+
+        MeterRegistry registry = context.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        if (registry != null) {
+            phases.forEach((phase, millis) -> TimeGauge.builder(STARTUP_GAUGE, millis, TimeUnit.MILLISECONDS, Long::doubleValue)
+                    .description("Time spent in each startup phase")
+                    .tag("phase", phase)
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.microsoft.azure.helium.web;
+
+import java.util.Locale;
+
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * RequestChargeAdvice
+ *
+ * Returns the request units charged so far in the X-Request-Charge header.
+ * Streamed responses send their headers before any document is read, so they
+ * are only reported through the metric.
+ */
+@ControllerAdvice
+public class RequestChargeAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object charge = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(RequestChargeFilter.ATTRIBUTE);
+            if (charge instanceof RequestCharge) {
+                response.getHeaders().set(RequestCharge.HEADER, String.format(Locale.ROOT, "%.2f", ((RequestCharge) charge).total()));
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,70 @@
+package com.microsoft.azure.helium.web;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * RequestChargeFilter
+ *
+ * Collects the Cosmos DB request units charged while serving each request and
+ * records them per endpoint once the request is complete. For streamed responses
+ * that is the async dispatch after the body is written; the charge follows the
+ * writing task to the application task executor through the TaskDecorator of
+ * RequestChargeConfig.
+ */
+public class RequestChargeFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE = RequestCharge.class.getName();
+    public static final String METRIC_NAME = "helium.request.charge";
+
+    private final MeterRegistry registry;
+
+    public RequestChargeFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestCharge charge = (RequestCharge) request.getAttribute(ATTRIBUTE);
+        if (charge == null) {
+            charge = new RequestCharge();
+            request.setAttribute(ATTRIBUTE, charge);
+        }
+
+        RequestCharge.attach(charge);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestCharge.detach();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (!request.isAsyncStarted() && pattern != null) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("Cosmos DB request units charged per HTTP request")
+                        .baseUnit("RU")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern.toString())
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(charge.total());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// Upserts the documents of one partition key in a single request and returns
+// the stored copies. A script only runs for a bounded time, so it may stop early;
+// the caller sends the documents it did not return again.
+function bulkUpsert(batch) {
+    var collection = getContext().getCollection();
+    var documents = batch.documents;
+    var written = [];
+
+    upsertNext();
+
+    function upsertNext() {
+        if (written.length === documents.length) {
+            getContext().getResponse().setBody(written);
+            return;
+        }
+
+        var accepted = collection.upsertDocument(collection.getSelfLink(), documents[written.length], function (err, document) {
+            if (err) {
+                throw err;
+            }
+            written.push(document);
+            upsertNext();
+        });
+        if (!accepted) {
+            getContext().getResponse().setBody(written);
+        }
+    }
+}
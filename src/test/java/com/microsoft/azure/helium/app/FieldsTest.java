@@ -0,0 +1,52 @@
+package com.microsoft.azure.helium.app;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsUtils;
+
+import org.junit.Test;
+
+/**
+ * FieldsTest
+ */
+public class FieldsTest {
+
+    @Test
+    public void parseShouldKeepRequestedOrderAndRejectUnknownFields() {
+        // Act
+        Fields fields = Fields.parse("name, actorId,name", Actor.class).get();
+
+        // Assert
+        assertThat(fields.getNames(), contains("name", "actorId"));
+        assertEquals("r.name, r.actorId", fields.select("r"));
+        assertFalse(Fields.parse("name,title", Actor.class).isPresent());
+        assertFalse(Fields.parse("r.name", Actor.class).isPresent());
+        assertFalse(Fields.parse(" ", Actor.class).isPresent());
+    }
+
+    @Test
+    public void projectionsShouldOnlyHoldRequestedFields() {
+        // Arrange
+        Fields fields = Fields.parse("name,birthYear", Actor.class).get();
+        Map<String, Object> document = new HashMap<>();
+        document.put("birthYear", 1964);
+        document.put("name", "Keanu Reeves");
+        document.put("movies", null);
+
+        // Act
+        Map<String, Object> projected = fields.project(ActorsUtils.createActorWithIdAndName("nm0000206", "Keanu Reeves"));
+        Map<String, Object> retained = fields.retain(document);
+
+        // Assert
+        assertThat(projected.keySet(), contains("name", "birthYear"));
+        assertEquals("Keanu Reeves", projected.get("name"));
+        assertThat(retained.keySet(), contains("name", "birthYear"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.microsoft.azure.helium.app;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+
+/**
+ * PagesTest
+ */
+public class PagesTest {
+
+    @Test
+    public void sliceShouldWalkInMemoryResultsWithOffsetTokens() {
+        // Arrange
+        List<String> items = Arrays.asList("a", "b", "c");
+
+        // Act
+        Page<String> first = Pages.slice(items, Pages.request(2, null));
+        Page<String> second = Pages.slice(items, Pages.request(2, Pages.nextContinuation(first)));
+
+        // Assert
+        assertThat(first.getContent(), contains("a", "b"));
+        assertEquals("2", Pages.nextContinuation(first));
+        assertThat(second.getContent(), contains("c"));
+        assertNull(Pages.nextContinuation(second));
+    }
+
+    @Test
+    public void cosmosTokensShouldNotBeTreatedAsOffsets() {
+        assertTrue(Pages.isOffset(null));
+        assertTrue(Pages.isOffset("42"));
+        assertFalse(Pages.isOffset("{\"token\":\"-RID:abc==#RT:1#TRC:2\",\"range\":{\"min\":\"\",\"max\":\"FF\"}}"));
+    }
+}
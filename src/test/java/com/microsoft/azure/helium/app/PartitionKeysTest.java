@@ -0,0 +1,29 @@
+package com.microsoft.azure.helium.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * PartitionKeysTest
+ */
+public class PartitionKeysTest {
+
+    @Test
+    public void partitionKeyShouldBeNumericIdModuloTen() {
+        assertEquals("3", PartitionKeys.fromId("tt0133093").get());
+        assertEquals("6", PartitionKeys.fromId("nm0000206").get());
+        assertEquals("0", PartitionKeys.fromId("nm10").get());
+    }
+
+    @Test
+    public void partitionKeyShouldBeEmptyForOtherIds() {
+        assertFalse(PartitionKeys.fromId(null).isPresent());
+        assertFalse(PartitionKeys.fromId("").isPresent());
+        assertFalse(PartitionKeys.fromId("xx0133093").isPresent());
+        assertFalse(PartitionKeys.fromId(UUID.randomUUID().toString()).isPresent());
+    }
+}
@@ -0,0 +1,92 @@
+package com.microsoft.azure.helium.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * RequestCoalescerTest
+ */
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final RequestCoalescer<String, Object> coalescer = new RequestCoalescer<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallersShouldShareOneLoad() throws Exception {
+        // Arrange
+        Object expected = new Object();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.load("tt0133093", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return expected;
+            })));
+        }
+        while (coalescer.inFlight() == 0) {
+            Thread.sleep(1);
+        }
+        // give the remaining callers time to join the load in progress
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        for (Future<Object> result : results) {
+            assertSame(expected, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    public void failedLoadShouldNotBeRemembered() {
+        // Arrange
+        Object expected = new Object();
+
+        // Act
+        try {
+            coalescer.load("nm0000206", () -> {
+                throw new IllegalStateException("throttled");
+            });
+            fail("the exception of the load should be rethrown");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        Object actual = coalescer.load("nm0000206", () -> expected);
+
+        // Assert
+        assertSame(expected, actual);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -57,12 +57,12 @@ public class ActorsControllerIT {
         repository.saveAll(expected);
 
         // Act
-        List<Actor> actual = controller.getAllActors(query).getBody();
+        List<ActorSummary> actual = controller.getAllActors(query, Optional.empty(), Optional.empty(), Optional.empty()).getBody();
 
         // Assert
         assertNotNull(actual);
         assertThat(actual, hasSize(expected.size()));
-        assertThat(actual, containsInAnyOrder(expected.toArray()));
+        assertThat(actual, containsInAnyOrder(ActorSummary.of(expected).toArray()));
     }
     
     @Test
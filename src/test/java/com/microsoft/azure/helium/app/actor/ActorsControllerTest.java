@@ -1,23 +1,47 @@
 package com.microsoft.azure.helium.app.actor;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.microsoft.azure.helium.app.BinaryFormats;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.Fields;
+import com.microsoft.azure.helium.app.NdJson;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.bulk.BulkReport;
 import com.microsoft.azure.helium.utils.IntegrationTestsUtils;
 
 import org.junit.Test;
@@ -25,9 +49,11 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 /**
@@ -64,6 +90,145 @@ public class ActorsControllerTest {
         verify(service, times(1)).getAllActors(any());
     }
 
+    @Test
+    public void getActorsEndpointShouldReturnPageAndContinuationFromService() throws Exception {
+        // Arrange
+        String expectedId = UUID.randomUUID().toString();
+        List<Actor> actors = Arrays.asList(ActorsUtils.createActorWithId(expectedId), ActorsUtils.createActorWithId("nm2"));
+        when(service.getActors(any(), eq(1), any())).thenReturn(Pages.slice(actors, Pages.request(1, null)));
+
+        // Act
+        ResultActions action = this.mockMvc
+            .perform(get("/api/actors").param("pageSize", "1"))
+            .andDo(print());
+
+        // Assert
+        action
+            .andExpect(status().isOk())
+            .andExpect(header().string(Constants.CONTINUATION_HEADER, "1"))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id", is(expectedId)));
+        verify(service, times(1)).getActors(any(), anyInt(), any());
+    }
+
+    @Test
+    public void getActorsEndpointShouldReturnOnlyRequestedFields() throws Exception {
+        // Arrange
+        Actor actor = ActorsUtils.createActorWithIdAndName("nm1", "Joe Contoso");
+        when(service.getAllActors(any(), any(Fields.class))).thenAnswer(invocation ->
+                invocation.<Fields>getArgument(1).projectAll(Arrays.asList(actor)));
+
+        // Act
+        ResultActions action = this.mockMvc
+            .perform(get("/api/actors").param("fields", "actorId,name"))
+            .andDo(print());
+
+        // Assert
+        action
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].actorId", is("nm1")))
+            .andExpect(jsonPath("$[0].name", is("Joe Contoso")))
+            .andExpect(jsonPath("$[0].movies").doesNotExist());
+        this.mockMvc
+            .perform(get("/api/actors").param("fields", "actorId,title"))
+            .andExpect(status().isBadRequest());
+        this.mockMvc
+            .perform(get("/api/actors").param("fields", "actorId,movies").param("expand", "movies"))
+            .andExpect(status().isBadRequest());
+        this.mockMvc
+            .perform(get("/api/actors").param("fields", "actorId,movies").param("expand", "movies").accept(NdJson.MEDIA_TYPE))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getActorsEndpointShouldExpandMoviesOnlyWhenRequested() throws Exception {
+        // Arrange
+        Actor actor = ActorsUtils.createActorWithId("nm1");
+        List<Actor> actors = Arrays.asList(actor);
+        when(service.getAllActors(any())).thenReturn(actors);
+        when(service.summarizeWithMovies(actors)).thenReturn(Arrays.asList(ActorSummary.of(actor).withMovies(Collections.emptyList())));
+
+        // Act
+        ResultActions summary = this.mockMvc
+            .perform(get("/api/actors"))
+            .andDo(print());
+        ResultActions expanded = this.mockMvc
+            .perform(get("/api/actors").param("expand", "movies"))
+            .andDo(print());
+
+        // Assert
+        summary
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].actorId", is("nm1")))
+            .andExpect(jsonPath("$[0].movies").doesNotExist());
+        expanded
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].movies", hasSize(0)));
+        verify(service, times(1)).summarizeWithMovies(actors);
+        this.mockMvc
+            .perform(get("/api/actors").param("expand", "roles"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getActorsEndpointShouldEncodeSmileWhenAccepted() throws Exception {
+        // Arrange
+        Actor actor = ActorsUtils.createActorWithIdAndName("nm1", "Joe Contoso");
+        when(service.getAllActors(any())).thenReturn(Arrays.asList(actor));
+
+        // Act
+        byte[] body = this.mockMvc
+            .perform(get("/api/actors").accept(BinaryFormats.SMILE_VALUE))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(BinaryFormats.SMILE_VALUE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        JsonNode actual = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(actual.get(0).get("name").asText(), is("Joe Contoso"));
+    }
+
+    @Test
+    public void getActorsEndpointShouldRejectOutOfRangePageSize() throws Exception {
+        // Act
+        ResultActions action = this.mockMvc
+            .perform(get("/api/actors").param("pageSize", "0"))
+            .andDo(print());
+
+        // Assert
+        action.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getActorsEndpointShouldStreamNewlineDelimitedJsonFromService() throws Exception {
+        // Arrange
+        List<Actor> firstPage = Arrays.asList(ActorsUtils.createActorWithId("nm1"), ActorsUtils.createActorWithId("nm2"));
+        List<Actor> secondPage = Arrays.asList(ActorsUtils.createActorWithId("nm3"));
+        doAnswer(invocation -> {
+            Consumer<List<Actor>> consumer = invocation.getArgument(1);
+            consumer.accept(firstPage);
+            consumer.accept(secondPage);
+            return null;
+        }).when(service).forEachActorPage(any(), any(Consumer.class));
+
+        // Act
+        MvcResult started = this.mockMvc
+            .perform(get("/api/actors").accept(NdJson.MEDIA_TYPE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        ResultActions action = this.mockMvc.perform(asyncDispatch(started)).andDo(print());
+
+        // Assert
+        String[] lines = action
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(NdJson.MEDIA_TYPE))
+            .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines.length, is(3));
+        assertThat(lines[2], containsString("\"actorId\":\"nm3\""));
+    }
+
     @Test
     public void getSingleActorEndpointShouldReturnValidActorFromService() throws Exception {
         // Arrange
@@ -84,6 +249,58 @@ public class ActorsControllerTest {
         verify(service, times(1)).getActor(any());
     }
 
+    @Test
+    public void getSingleActorEndpointShouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        // Arrange
+        Actor expected = ActorsUtils.createActorWithIdAndEtag("nm1", "\"00000001-0000-0000-0000-000000000000\"");
+        when(service.getActor("nm1")).thenReturn(Optional.of(expected));
+        String etag = this.mockMvc
+            .perform(get("/api/actors/{actorId}", "nm1"))
+            .andExpect(status().isOk())
+            // shared by the JSON and binary encodings, so it must not claim identical bytes
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        ResultActions result = this.mockMvc
+            .perform(get("/api/actors/{actorId}", "nm1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andDo(print());
+
+        // Assert
+        result
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+        this.mockMvc
+            .perform(get("/api/actors/{actorId}", "nm1").param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    public void getActorsEndpointShouldChangeEtagWhenAnActorChanges() throws Exception {
+        // Arrange
+        Actor first = ActorsUtils.createActorWithIdAndEtag("nm1", "\"00000001-0000-0000-0000-000000000000\"");
+        Actor second = ActorsUtils.createActorWithIdAndEtag("nm2", "\"00000002-0000-0000-0000-000000000000\"");
+        Actor updated = ActorsUtils.createActorWithIdAndEtag("nm2", "\"00000003-0000-0000-0000-000000000000\"");
+        when(service.getAllActors(any())).thenReturn(Arrays.asList(first, second), Arrays.asList(first, second), Arrays.asList(first, updated));
+        String etag = this.mockMvc
+            .perform(get("/api/actors"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        ResultActions unchanged = this.mockMvc
+            .perform(get("/api/actors").header(HttpHeaders.IF_NONE_MATCH, etag));
+        ResultActions changed = this.mockMvc
+            .perform(get("/api/actors").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andDo(print());
+
+        // Assert
+        unchanged.andExpect(status().isNotModified());
+        changed
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)));
+    }
+
     @Test
     public void getActorsEndpointShouldReturnNotFoundActorFromService() throws Exception {
         // Arrange
@@ -122,4 +339,32 @@ public class ActorsControllerTest {
         verify(service, times(1)).createActor(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void postBulkEndpointShouldAcceptJsonArraysAndNewlineDelimitedJson() throws Exception {
+        // Arrange
+        Actor first = ActorsUtils.createActorWithId("nm1");
+        Actor second = ActorsUtils.createActorWithId("nm2");
+        List<String> received = new ArrayList<>();
+        when(service.createActors(any())).thenAnswer(invocation -> {
+            Iterator<Actor> actors = invocation.getArgument(0);
+            actors.forEachRemaining(actor -> received.add(actor.getId()));
+            return new BulkReport(2, 0, Collections.emptyList());
+        });
+        byte[] array = IntegrationTestsUtils.serializeObject(Arrays.asList(first, second));
+        String ndjson = new String(IntegrationTestsUtils.serializeObject(first), StandardCharsets.UTF_8) + "\n"
+                + new String(IntegrationTestsUtils.serializeObject(second), StandardCharsets.UTF_8) + "\n";
+
+        // Act
+        ResultActions arrayAction = this.mockMvc
+            .perform(post("/api/actors/bulk").contentType(MediaType.APPLICATION_JSON).content(array));
+        ResultActions ndjsonAction = this.mockMvc
+            .perform(post("/api/actors/bulk").contentType(NdJson.MEDIA_TYPE).content(ndjson));
+
+        // Assert
+        arrayAction
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded", is(2)));
+        ndjsonAction.andExpect(status().isOk());
+        assertThat(received, contains("nm1", "nm2", "nm1", "nm2"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.microsoft.azure.helium.app.actor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.cosmos.DocumentQueries;
+import com.microsoft.azure.spring.data.cosmosdb.core.DocumentDbOperations;
+import com.microsoft.azure.spring.data.cosmosdb.repository.support.DocumentDbRepositoryFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * ActorsRepositoryTest
+ *
+ * The queries Spring Data would derive read their feeds in one call, so only the
+ * charge of the last page would reach the request. These tests make sure the
+ * repository answers them from DocumentQueries, which charges every page.
+ */
+public class ActorsRepositoryTest {
+
+    private DocumentQueries queries;
+    private DocumentDbOperations operations;
+    private ActorsRepository repository;
+
+    @Before
+    public void setUp() {
+        queries = mock(DocumentQueries.class);
+        operations = mock(DocumentDbOperations.class);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(DocumentDbOperations.class)).thenReturn(operations);
+
+        ActorsRepositoryImpl custom = new ActorsRepositoryImpl();
+        ReflectionTestUtils.setField(custom, "queries", queries);
+        repository = new DocumentDbRepositoryFactory(operations, context)
+                .getRepository(ActorsRepository.class, RepositoryFragments.just(custom));
+    }
+
+    @Test
+    public void feedReadsShouldRunThroughDocumentQueries() {
+        List<Actor> expected = Collections.singletonList(ActorsUtils.createActorWithId("nm0000001"));
+        when(queries.list(eq(Actor.class), any(SqlQuerySpec.class))).thenReturn(expected);
+
+        assertEquals(expected, repository.findAll());
+        assertEquals(expected, repository.findByTextSearchContaining("joe"));
+        assertEquals(expected, repository.findByActorId("nm0000001"));
+        assertEquals(expected, repository.findAllById(Arrays.asList("nm0000001", "nm0000002")));
+
+        ArgumentCaptor<SqlQuerySpec> query = ArgumentCaptor.forClass(SqlQuerySpec.class);
+        verify(queries, times(4)).list(eq(Actor.class), query.capture());
+        assertEquals("SELECT * FROM ROOT r WHERE r.id IN (@id0, @id1)", query.getAllValues().get(3).getQueryText());
+        verify(operations, never()).findAll(anyString(), any());
+        verify(operations, never()).find(any(), any(), anyString());
+        verify(operations, never()).findByIds(any(), any(), anyString());
+    }
+
+    @Test
+    public void pagedReadsShouldRunThroughDocumentQueries() {
+        Pageable pageable = Pages.request(10, "token");
+
+        repository.findAll(pageable);
+        repository.findByTextSearchContaining("joe", pageable);
+
+        verify(queries, times(2)).page(eq(Actor.class), any(SqlQuerySpec.class), eq(pageable));
+        verify(operations, never()).findAll(any(Pageable.class), any(), anyString());
+        verify(operations, never()).paginationQuery(any(), any(), anyString());
+    }
+
+    @Test
+    public void saveShouldReturnTheStoredDocument() {
+        Actor actor = ActorsUtils.createActorWithIdAndEtag("nm0000001", "\"stale\"");
+        Actor stored = ActorsUtils.createActorWithIdAndEtag("nm0000001", "\"fresh\"");
+        when(queries.upsert(actor, actor.getKey())).thenReturn(stored);
+
+        assertEquals("\"fresh\"", repository.save(actor).getEtag());
+        verify(operations, never()).upsert(anyString(), any(), any());
+        verify(operations, never()).insert(anyString(), any(), any());
+    }
+
+    @Test
+    public void saveBatchShouldWriteThePartitionInOneCall() {
+        List<Actor> actors = Arrays.asList(ActorsUtils.createActorWithId("nm0000001"), ActorsUtils.createActorWithId("nm0000011"));
+        when(queries.upsertAll(Actor.class, "1", actors)).thenReturn(actors);
+
+        assertEquals(actors, repository.saveBatch("1", actors));
+        verify(queries).upsertAll(Actor.class, "1", actors);
+    }
+}
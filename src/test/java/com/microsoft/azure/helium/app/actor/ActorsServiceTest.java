@@ -8,6 +8,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -19,11 +20,17 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.app.movie.MovieSummary;
+import com.microsoft.azure.helium.app.movie.MoviesRepository;
+import com.microsoft.azure.helium.app.movie.MoviesUtils;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * ActorsServiceTest
@@ -34,6 +41,9 @@ public class ActorsServiceTest {
     @Mock
     private ActorsRepository repository;
 
+    @Mock
+    private MoviesRepository moviesRepository;
+
     @InjectMocks
     private ActorsService service;
 
@@ -69,6 +79,24 @@ public class ActorsServiceTest {
         assertThat(actual, containsInAnyOrder(expected.toArray()));
     }
 
+    @Test
+    public void shouldAnswerQueryFromSearchIndexWhenWarm() throws Exception {
+        // Arrange
+        Actor expected = ActorsUtils.createActorWithIdAndName(UUID.randomUUID().toString(), "Joe Contoso");
+        Actor other = ActorsUtils.createActorWithIdAndName(UUID.randomUUID().toString(), "Jane Fabrikam");
+        when(repository.findAll()).thenReturn(Arrays.asList(expected, other));
+        ReflectionTestUtils.setField(service, "searchIndexEnabled", true);
+        service.refreshSearchIndex();
+
+        // Act
+        List<Actor> actual = service.getAllActors(Optional.of("Contoso"));
+
+        // Assert
+        verify(repository, never()).findByTextSearchContaining(anyString());
+        assertThat(actual, hasSize(1));
+        assertEquals(expected, actual.get(0));
+    }
+
     @Test(expected = NullPointerException.class)
     public void shouldThrowWhenGettingActorWithNullActorId() {
         String actorId = null;
@@ -113,6 +141,22 @@ public class ActorsServiceTest {
         assertEquals(expected, actual.get());
     }
 
+    @Test
+    public void shouldPreferPointReadWhenFindingActor() throws Exception {
+        // Arrange
+        Actor expected = mock(Actor.class);
+        when(repository.pointReadByActorId(anyString())).thenReturn(Optional.of(expected));
+
+        // Act
+        Optional<Actor> actual = service.getActor("nm0000206");
+
+        // Assert
+        verify(repository, times(1)).pointReadByActorId("nm0000206");
+        verify(repository, never()).findByActorId(anyString());
+        assertTrue(actual.isPresent());
+        assertEquals(expected, actual.get());
+    }
+
     @Test(expected = NullPointerException.class)
     public void shouldThrowWhenCreatingActorWithNull() {
         Actor actor = null;
@@ -133,4 +177,24 @@ public class ActorsServiceTest {
         assertNotNull(actual);
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldExpandMoviesWithOneLookupAndFallBackToEmbeddedCopy() throws Exception {
+        // Arrange
+        Movie stored = MoviesUtils.createMovieWithIdAndTitle("tt1", "The Matrix");
+        Movie embedded = MoviesUtils.createMovieWithId("tt1");
+        Movie missing = MoviesUtils.createMovieWithIdAndTitle("tt2", "Speed");
+        Actor first = new Actor("nm1", "nm1", "", "", "Actor", "0", 0, new ArrayList<String>(), Arrays.asList(embedded, missing), null);
+        Actor second = new Actor("nm2", "nm2", "", "", "Actor", "0", 0, new ArrayList<String>(), Arrays.asList(embedded), null);
+        when(moviesRepository.findAllById(Arrays.asList("tt1", "tt2"))).thenReturn(Arrays.asList(stored));
+
+        // Act
+        List<ActorSummary> actual = service.summarizeWithMovies(Arrays.asList(first, second));
+
+        // Assert
+        verify(moviesRepository, times(1)).findAllById(Arrays.asList("tt1", "tt2"));
+        assertThat(actual, hasSize(2));
+        assertEquals(Arrays.asList(MovieSummary.of(stored), MovieSummary.of(missing)), actual.get(0).getMovies());
+        assertEquals(Arrays.asList(MovieSummary.of(stored)), actual.get(1).getMovies());
+    }
+}
@@ -10,11 +10,15 @@ import com.microsoft.azure.helium.app.movie.Movie;
 public class ActorsUtils {
 
     public static Actor createActorWithId(String id){
-        return new Actor(id, id, "", "", "actor", "0", 0, new ArrayList<String>(), new ArrayList<Movie>());
+        return new Actor(id, id, "", "", "actor", "0", 0, new ArrayList<String>(), new ArrayList<Movie>(), null);
+    }
+
+    public static Actor createActorWithIdAndEtag(String id, String etag){
+        return new Actor(id, id, "", "", "actor", "0", 0, new ArrayList<String>(), new ArrayList<Movie>(), etag);
     }
 
     public static Actor createActorWithIdAndName(String id, String name){
-        return new Actor(id, id, name.toLowerCase(), name, "actor", "0", 0, new ArrayList<String>(), new ArrayList<Movie>());
+        return new Actor(id, id, name.toLowerCase(), name, "actor", "0", 0, new ArrayList<String>(), new ArrayList<Movie>(), null);
     }
     
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.microsoft.azure.helium.app.bulk;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * BulkWriterTest
+ */
+public class BulkWriterTest {
+
+    private BulkWriter writer;
+
+    @Before
+    public void setupWriter() {
+        writer = new BulkWriter();
+        ReflectionTestUtils.setField(writer, "concurrency", 2);
+        ReflectionTestUtils.setField(writer, "batchSize", 2);
+        writer.initialize();
+    }
+
+    @After
+    public void shutdownWriter() {
+        writer.shutdown();
+    }
+
+    @Test
+    public void writeShouldReportEachDocumentInRequestOrder() {
+        // Arrange
+        List<Actor> actors = Arrays.asList(
+                ActorsUtils.createActorWithId("nm1"),
+                ActorsUtils.createActorWithId(""),
+                ActorsUtils.createActorWithId("nm3"),
+                ActorsUtils.createActorWithId("nm4"),
+                ActorsUtils.createActorWithId("nm5"),
+                ActorsUtils.createActorWithId("nm6"));
+        Set<String> saved = ConcurrentHashMap.newKeySet();
+
+        // Act
+        BulkReport report = writer.write(actors.iterator(), Actor::getId, Actor::getKey, (key, batch) -> {
+            if (batch.stream().anyMatch(actor -> actor.getId().equals("nm4"))) {
+                throw new RuntimeException("conflict");
+            }
+            batch.forEach(actor -> saved.add(actor.getId()));
+            return batch;
+        });
+
+        // Assert
+        assertEquals(4, report.getSucceeded());
+        assertEquals(2, report.getFailed());
+        assertThat(report.getItems().stream().map(BulkItemResult::getStatus).collect(Collectors.toList()),
+                contains(201, 400, 201, 500, 201, 201));
+        assertThat(report.getItems().stream().map(BulkItemResult::getIndex).collect(Collectors.toList()),
+                contains(0, 1, 2, 3, 4, 5));
+        assertThat(saved, containsInAnyOrder("nm1", "nm3", "nm5", "nm6"));
+    }
+
+    @Test
+    public void writeShouldSendEachPartitionBatchInOneCall() {
+        // Arrange
+        List<Actor> actors = Arrays.asList(
+                ActorsUtils.createActorWithId("nm1"),
+                ActorsUtils.createActorWithId("nm11"),
+                ActorsUtils.createActorWithId("nm2"),
+                ActorsUtils.createActorWithId("nm21"));
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        BulkReport report = writer.write(actors.iterator(), Actor::getId, actor -> actor.getId().substring(0, 3), (key, batch) -> {
+            calls.add(key + ":" + batch.stream().map(Actor::getId).collect(Collectors.joining(",")));
+            return batch;
+        });
+
+        // Assert
+        assertEquals(4, report.getSucceeded());
+        assertThat(calls, containsInAnyOrder("nm1:nm1,nm11", "nm2:nm2,nm21"));
+    }
+
+    @Test
+    public void failedBatchShouldBeWrittenAgainOneDocumentAtATime() {
+        // Arrange
+        List<Actor> actors = Arrays.asList(
+                ActorsUtils.createActorWithId("nm1"),
+                ActorsUtils.createActorWithId("nm2"));
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        BulkReport report = writer.write(actors.iterator(), Actor::getId, Actor::getKey, (key, batch) -> {
+            batchSizes.add(batch.size());
+            if (batch.stream().anyMatch(actor -> actor.getId().equals("nm2"))) {
+                throw new RuntimeException("conflict");
+            }
+            return batch;
+        });
+
+        // Assert
+        assertThat(report.getItems().stream().map(BulkItemResult::getStatus).collect(Collectors.toList()), contains(201, 500));
+        assertThat(batchSizes, contains(2, 1, 1));
+    }
+
+    @Test
+    public void writeShouldStopAtUnreadableDocument() {
+        // Arrange
+        Iterator<Actor> broken = new Iterator<Actor>() {
+            private final Iterator<Actor> actors = Collections.singletonList(ActorsUtils.createActorWithId("nm1")).iterator();
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Actor next() {
+                if (actors.hasNext()) {
+                    return actors.next();
+                }
+                throw new IllegalArgumentException("unexpected token");
+            }
+        };
+
+        // Act
+        BulkReport report = writer.write(broken, Actor::getId, Actor::getKey, (key, batch) -> batch);
+
+        // Assert
+        assertEquals(1, report.getSucceeded());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getItems().get(1).getIndex());
+        assertEquals(400, report.getItems().get(1).getStatus());
+    }
+}
@@ -0,0 +1,65 @@
+package com.microsoft.azure.helium.app.genre;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GenresCacheTest
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GenresCacheTest {
+
+    @Mock
+    private GenresService service;
+
+    private MeterRegistry registry = new SimpleMeterRegistry();
+
+    private GenresCache cache = new GenresCache();
+
+    @Before
+    public void setupCache() {
+        ReflectionTestUtils.setField(cache, "service", service);
+        ReflectionTestUtils.setField(cache, "mapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "registry", registry);
+        ReflectionTestUtils.setField(cache, "ttl", 60000L);
+        ReflectionTestUtils.setField(cache, "refreshInterval", 30000L);
+        cache.initialize();
+    }
+
+    @Test
+    public void cacheShouldLoadGenresOnceAndServePreSerializedJson() throws Exception {
+        // Arrange
+        List<String> expected = Arrays.asList("Animation", "Comedy", "Sci-Fi");
+        when(service.getAllGenres()).thenReturn(expected);
+
+        // Act
+        cache.get();
+        GenresPayload actual = cache.get();
+
+        // Assert
+        verify(service, times(1)).getAllGenres();
+        assertThat(actual.getGenres(), contains(expected.toArray()));
+        assertEquals("[\"Animation\",\"Comedy\",\"Sci-Fi\"]", new String(actual.getJson(), "UTF-8"));
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "genres").tag("result", "hit").functionCounter().count(), 0.0);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "genres").tag("result", "miss").functionCounter().count(), 0.0);
+    }
+}
@@ -8,6 +8,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import java.util.Arrays;
 import java.util.List;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.helium.Application;
 
 import org.junit.Before;
@@ -32,6 +34,12 @@ public class GenresControllerIT {
     @Autowired
     private GenresRepository repository;
 
+    @Autowired
+    private GenresCache cache;
+
+    @Autowired
+    private ObjectMapper mapper;
+
     public List<String> getGenresTestCases() {
         return Arrays.asList("Animation", "Comedy", "Sci-Fi", "Thriller", "Western");
     }
@@ -42,6 +50,7 @@ public class GenresControllerIT {
         List<Genre> genres = GenresUtils.getGenresFromStrings(cases);
         repository.deleteAll();
         repository.saveAll(genres);
+        cache.invalidate();
     }
 
     @Test
@@ -50,7 +59,7 @@ public class GenresControllerIT {
         List<String> cases = getGenresTestCases();
 
         // Act
-        List<String> genres = controller.getAllGenres().getBody();
+        List<String> genres = mapper.readValue(controller.getAllGenres().getBody(), new TypeReference<List<String>>() { });
 
         // Assert
         assertNotNull(genres);
@@ -2,24 +2,30 @@ package com.microsoft.azure.helium.app.genre;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 import java.util.Arrays;
 import java.util.List;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.microsoft.azure.helium.app.BinaryFormats;
 import com.microsoft.azure.helium.app.genre.GenresController;
-import com.microsoft.azure.helium.app.genre.GenresService;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -34,14 +40,17 @@ public class GenresControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper mapper;
+
     @MockBean
-    private GenresService service;
+    private GenresCache cache;
 
     @Test
-    public void genresEndpointShouldReturnAllGenresFromService() throws Exception {
+    public void genresEndpointShouldReturnAllGenresFromCache() throws Exception {
         // Arrange
         List<String> genres = Arrays.asList("Animation", "Comedy", "Sci-Fi");
-        when(service.getAllGenres()).thenReturn(genres);
+        when(cache.get()).thenReturn(new GenresPayload(genres, mapper.writeValueAsBytes(genres)));
 
         // Act
         ResultActions action = this.mockMvc
@@ -58,4 +67,44 @@ public class GenresControllerTest {
             .andExpect(jsonPath("$[2]", is("Sci-Fi")));
     }
 
+    @Test
+    public void genresEndpointShouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        // Arrange
+        List<String> genres = Arrays.asList("Animation", "Comedy", "Sci-Fi");
+        GenresPayload payload = new GenresPayload(genres, mapper.writeValueAsBytes(genres));
+        when(cache.get()).thenReturn(payload);
+
+        // Act
+        ResultActions action = this.mockMvc
+            .perform(get("/api/genres/").header(HttpHeaders.IF_NONE_MATCH, payload.getEtag()))
+            .andDo(print());
+
+        // Assert
+        action
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, payload.getEtag()))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    public void genresEndpointShouldEncodeCborWhenAccepted() throws Exception {
+        // Arrange
+        List<String> genres = Arrays.asList("Animation", "Comedy", "Sci-Fi");
+        when(cache.get()).thenReturn(new GenresPayload(genres, mapper.writeValueAsBytes(genres)));
+
+        // Act
+        byte[] body = this.mockMvc
+            .perform(get("/api/genres/").accept(BinaryFormats.CBOR_VALUE))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(BinaryFormats.CBOR_VALUE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        List<String> actual = new ObjectMapper(new CBORFactory()).readValue(body, new TypeReference<List<String>>() { });
+        assertEquals(genres, actual);
+        this.mockMvc
+            .perform(get("/api/genres/"))
+            .andExpect(content().contentType("application/json;charset=UTF-8"));
+    }
 }
@@ -33,7 +33,7 @@ public class GenresServiceTest {
     public void genresServiceShouldReturnListofAllGenres() throws Exception {
         // Arrange
         List<String> expected = Arrays.asList("Animation", "Comedy", "Sci-Fi");
-        Iterable<Genre> genres = GenresUtils.getGenresFromStrings(expected);
+        List<Genre> genres = GenresUtils.getGenresFromStrings(expected);
         when(repository.findAll()).thenReturn(genres);
 
         // Act
@@ -0,0 +1,92 @@
+package com.microsoft.azure.helium.app.movie;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.microsoft.azure.documentdb.SqlParameter;
+import com.microsoft.azure.documentdb.SqlQuerySpec;
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.cosmos.DocumentQueries;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * MoviesRepositoryTest
+ */
+public class MoviesRepositoryTest {
+
+    private DocumentQueries queries;
+    private MoviesRepositoryImpl repository;
+
+    @Before
+    public void setUp() {
+        queries = mock(DocumentQueries.class);
+        repository = new MoviesRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "queries", queries);
+    }
+
+    @Test
+    public void findTopRatedShouldFilterSortAndLimitInTheQuery() {
+        // Act
+        repository.findTopRated(Optional.of("Action"), Optional.of(1999), 5);
+
+        // Assert
+        ArgumentCaptor<SqlQuerySpec> query = ArgumentCaptor.forClass(SqlQuerySpec.class);
+        verify(queries).list(eq(Movie.class), query.capture());
+        assertEquals("SELECT TOP @limit * FROM ROOT r"
+                + " WHERE EXISTS(SELECT VALUE g FROM g IN r.genres WHERE LOWER(g) = @genre) AND r.year = @year"
+                + " ORDER BY r.rating DESC, r.votes DESC, r.movieId ASC", query.getValue().getQueryText());
+        assertEquals("action", parameter(query.getValue(), "@genre"));
+    }
+
+    @Test
+    public void findTopRatedShouldOmitTheFilterWhenUnbounded() {
+        // Act
+        repository.findTopRated(Optional.empty(), Optional.empty(), 5);
+
+        // Assert
+        ArgumentCaptor<SqlQuerySpec> query = ArgumentCaptor.forClass(SqlQuerySpec.class);
+        verify(queries).list(eq(Movie.class), query.capture());
+        assertEquals("SELECT TOP @limit * FROM ROOT r ORDER BY r.rating DESC, r.votes DESC, r.movieId ASC",
+                query.getValue().getQueryText());
+    }
+
+    @Test
+    public void findByFilterShouldFilterInTheQuery() {
+        // Arrange
+        MovieFilter filter = new MovieFilter();
+        filter.setGenre(Arrays.asList("Action", "Sci-Fi"));
+        filter.setMinYear(1990);
+        filter.setMinRating(8f);
+        Pageable pageable = Pages.request(10, null);
+
+        // Act
+        repository.findByFilter(filter, Optional.of("matrix"), pageable);
+
+        // Assert
+        ArgumentCaptor<SqlQuerySpec> query = ArgumentCaptor.forClass(SqlQuerySpec.class);
+        verify(queries).page(eq(Movie.class), query.capture(), eq(pageable));
+        assertEquals("SELECT * FROM ROOT r WHERE CONTAINS(r.textSearch, @textSearch)"
+                + " AND EXISTS(SELECT VALUE g FROM g IN r.genres WHERE LOWER(g) IN (@genre1, @genre2))"
+                + " AND r.year >= @minYear AND r.rating >= @minRating ORDER BY r.movieId", query.getValue().getQueryText());
+        assertEquals("sci-fi", parameter(query.getValue(), "@genre2"));
+    }
+
+    private static Object parameter(SqlQuerySpec query, String name) {
+        for (SqlParameter parameter : query.getParameters()) {
+            if (name.equals(parameter.getName())) {
+                return parameter.getValue(Object.class);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.microsoft.azure.helium.app.movie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.actor.ActorsRepository;
+import com.microsoft.azure.helium.app.bulk.BulkWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * MoviesServiceCacheTest
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = MoviesServiceCacheTest.CacheConfig.class)
+public class MoviesServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(MoviesService.class)
+    static class CacheConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(Constants.MOVIE_CACHE_NAME);
+        }
+    }
+
+    @MockBean
+    private MoviesRepository repository;
+
+    @MockBean
+    private BulkWriter bulkWriter;
+
+    @MockBean
+    private ActorsRepository actorsRepository;
+
+    @Autowired
+    private MoviesService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Before
+    public void clearCache() {
+        cacheManager.getCache(Constants.MOVIE_CACHE_NAME).clear();
+    }
+
+    @Test
+    public void getMovieShouldReadThroughCache() {
+        // Arrange
+        Movie expected = MoviesUtils.createMovieWithId("tt0133093");
+        when(repository.findByMovieId(anyString())).thenReturn(Arrays.asList(expected));
+
+        // Act
+        service.getMovie(expected.getMovieId());
+        Movie actual = service.getMovie(expected.getMovieId()).get();
+
+        // Assert
+        verify(repository, times(1)).findByMovieId(expected.getMovieId());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void getMovieShouldNotCacheMissingMovies() {
+        // Arrange
+        when(repository.findByMovieId(anyString())).thenReturn(Collections.emptyList());
+
+        // Act
+        service.getMovie("tt0000001");
+        service.getMovie("tt0000001");
+
+        // Assert
+        verify(repository, times(2)).findByMovieId("tt0000001");
+    }
+
+    @Test
+    public void writesShouldInvalidateCachedMovie() {
+        // Arrange
+        Movie movie = MoviesUtils.createMovieWithId("tt0133093");
+        when(repository.findByMovieId(anyString())).thenReturn(Arrays.asList(movie));
+        when(repository.existsById(anyString())).thenReturn(true);
+        when(repository.save(movie)).thenReturn(movie);
+
+        // Act
+        service.getMovie(movie.getMovieId());
+        service.updateMovie(movie.getMovieId(), movie);
+        service.getMovie(movie.getMovieId());
+        service.deleteMovie(movie.getMovieId());
+        service.getMovie(movie.getMovieId());
+
+        // Assert
+        verify(repository, times(3)).findByMovieId(movie.getMovieId());
+    }
+
+    @Test
+    public void updateShouldRejectAMovieWithAnotherId() {
+        // Arrange
+        Movie movie = MoviesUtils.createMovieWithId("tt0000002");
+
+        // Act
+        try {
+            service.updateMovie("tt0000001", movie);
+        } catch (IllegalArgumentException expected) {
+            // Assert
+            verify(repository, never()).save(any(Movie.class));
+            return;
+        }
+        fail("the update was not rejected");
+    }
+}
@@ -0,0 +1,19 @@
+package com.microsoft.azure.helium.app.movie;
+
+import java.util.ArrayList;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+
+/**
+ * MoviesUtils
+ */
+public class MoviesUtils {
+
+    public static Movie createMovieWithId(String id) {
+        return new Movie(id, id, "", "", "Movie", "0", 0, 0, 0, new ArrayList<String>(), new ArrayList<Actor>(), null);
+    }
+
+    public static Movie createMovieWithIdAndTitle(String id, String title) {
+        return new Movie(id, id, title.toLowerCase(), title, "Movie", "0", 0, 0, 0, new ArrayList<String>(), new ArrayList<Actor>(), null);
+    }
+}
@@ -0,0 +1,169 @@
+package com.microsoft.azure.helium.app.search;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.movie.Movie;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * FacetIndexTest
+ */
+public class FacetIndexTest {
+
+    private FacetIndex<Movie> index;
+
+    private static Movie doc(String id, float year, float rating, String... genres) {
+        return new Movie(id, id, "", id, "Movie", "0", year, rating, 0, Arrays.asList(genres), Collections.<Actor>emptyList(), null);
+    }
+
+    private static List<String> ids(FacetIndex.Result<Movie> result) {
+        return result.getMatches().stream().map(Movie::getMovieId).collect(Collectors.toList());
+    }
+
+    @Before
+    public void setupIndex() {
+        index = new FacetIndex<Movie>(Movie::getMovieId)
+                .keyword("genres", Movie::getGenres)
+                .numeric("year", Movie::getYear, 1)
+                .numeric("rating", Movie::getRating, 1);
+        index.rebuild(() -> Arrays.asList(
+                doc("c", 1999, 8.7f, "Action", "Sci-Fi"),
+                doc("a", 1994, 8.9f, "Crime"),
+                doc("b", 1994, 7.2f, "Action"),
+                doc("d", 2010, 8.8f, "Sci-Fi")));
+    }
+
+    @Test
+    public void coldIndexShouldNotAnswerQueries() {
+        // Arrange
+        FacetIndex<Movie> cold = new FacetIndex<>(Movie::getMovieId);
+
+        // Assert
+        assertFalse(cold.query(new FacetIndex.Query()).isPresent());
+    }
+
+    @Test
+    public void queryShouldIntersectCriteria() {
+        // Arrange
+        FacetIndex.Query query = new FacetIndex.Query()
+                .keyword("genres", Arrays.asList("action", "crime"))
+                .range("rating", Optional.of(8f), Optional.empty());
+
+        // Act
+        FacetIndex.Result<Movie> result = index.query(query).get();
+
+        // Assert
+        assertThat(ids(result), contains("a", "c"));
+    }
+
+    @Test
+    public void queryShouldFilterInclusiveRanges() {
+        // Arrange
+        FacetIndex.Query query = new FacetIndex.Query().range("year", Optional.of(1994), Optional.of(1999));
+
+        // Act
+        FacetIndex.Result<Movie> result = index.query(query).get();
+
+        // Assert
+        assertThat(ids(result), contains("a", "b", "c"));
+    }
+
+    @Test
+    public void queryShouldCountMatchesPerFacet() {
+        // Arrange
+        FacetIndex.Query query = new FacetIndex.Query().keyword("genres", Collections.singletonList("Sci-Fi"));
+
+        // Act
+        FacetIndex.Result<Movie> result = index.query(query).get();
+
+        // Assert
+        assertEquals(Integer.valueOf(2), result.getFacets().get("genres").get("Sci-Fi"));
+        assertEquals(Integer.valueOf(1), result.getFacets().get("genres").get("Action"));
+        assertFalse(result.getFacets().get("genres").containsKey("Crime"));
+        assertEquals(Integer.valueOf(2), result.getFacets().get("rating").get("8"));
+        assertEquals(Integer.valueOf(1), result.getFacets().get("year").get("2010"));
+    }
+
+    @Test
+    public void writesShouldApplyToNextQuery() {
+        // Act
+        index.put(doc("b", 1994, 9.1f, "Action"));
+        index.remove("c");
+        index.put(doc("e", 2003, 7.2f, "Action"));
+
+        // Assert
+        FacetIndex.Result<Movie> result = index.query(new FacetIndex.Query().keyword("genres", Collections.singletonList("Action"))).get();
+        assertThat(ids(result), contains("b", "e"));
+        assertEquals(Integer.valueOf(1), result.getFacets().get("rating").get("9"));
+    }
+
+    @Test
+    public void writesDuringRebuildShouldNotBeLost() {
+        // Act
+        index.rebuild(() -> {
+            // read before the writes below, which the new index must still reflect
+            List<Movie> loaded = Arrays.asList(doc("a", 1994, 8.9f, "Crime"), doc("c", 1999, 8.7f, "Action"));
+            index.remove("c");
+            index.put(doc("a", 1994, 9.3f, "Action"));
+            return loaded;
+        });
+
+        // Assert
+        FacetIndex.Result<Movie> result = index.query(new FacetIndex.Query().keyword("genres", Collections.singletonList("Action"))).get();
+        assertThat(ids(result), contains("a"));
+        assertEquals(Integer.valueOf(1), result.getFacets().get("rating").get("9"));
+    }
+
+    @Test(timeout = 10000)
+    public void queriesShouldBeServedThePreviousSnapshotWhileTheNextIsBuilt() throws Exception {
+        // Arrange
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FacetIndex<Movie> blocking = new FacetIndex<Movie>(Movie::getMovieId)
+                .keyword("genres", movie -> {
+                    if ("e".equals(movie.getMovieId())) {
+                        building.countDown();
+                        await(release);
+                    }
+                    return movie.getGenres();
+                });
+        blocking.rebuild(() -> Arrays.asList(doc("a", 1994, 8.9f, "Crime")));
+        blocking.put(doc("e", 2003, 7.2f, "Action"));
+
+        // Act
+        CompletableFuture<FacetIndex.Result<Movie>> builder = CompletableFuture.supplyAsync(() -> blocking.query(new FacetIndex.Query()).get());
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        FacetIndex.Result<Movie> previous = blocking.query(new FacetIndex.Query()).get();
+        blocking.put(doc("f", 2004, 7.5f, "Action"));
+        release.countDown();
+
+        // Assert
+        assertThat(ids(previous), contains("a"));
+        assertThat(ids(builder.get(5, TimeUnit.SECONDS)), contains("a", "e"));
+        assertThat(ids(blocking.query(new FacetIndex.Query()).get()), contains("a", "e", "f"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
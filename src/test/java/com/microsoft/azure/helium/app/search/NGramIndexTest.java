@@ -0,0 +1,100 @@
+package com.microsoft.azure.helium.app.search;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * NGramIndexTest
+ */
+public class NGramIndexTest {
+
+    private NGramIndex<Actor> index;
+
+    private static Actor doc(String id, String name) {
+        return ActorsUtils.createActorWithIdAndName(id, name);
+    }
+
+    @Before
+    public void setupIndex() {
+        index = new NGramIndex<>(Actor::getActorId, Actor::getTextSearch);
+    }
+
+    @Test
+    public void coldIndexShouldNotAnswerQueries() {
+        // Act
+        Optional<List<Actor>> actual = index.search("joe");
+
+        // Assert
+        assertFalse(index.isWarm());
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void searchShouldMatchSubstringsLikeContains() {
+        // Arrange
+        Actor joe = doc("nm1", "joe contoso");
+        Actor jane = doc("nm2", "jane contoso");
+        Actor bob = doc("nm3", "bob fabrikam");
+        index.rebuild(() -> Arrays.asList(bob, jane, joe));
+
+        // Act & Assert
+        assertTrue(index.isWarm());
+        assertThat(index.search("contoso").get(), contains(joe, jane));
+        assertThat(index.search("joe con").get(), contains(joe));
+        assertThat(index.search("o").get(), contains(joe, jane, bob));
+        assertThat(index.search("oso fab").get(), empty());
+    }
+
+    @Test
+    public void putAndRemoveShouldKeepIndexCurrent() {
+        // Arrange
+        index.rebuild(() -> Arrays.asList(doc("tt1", "the matrix")));
+
+        // Act
+        Actor renamed = doc("tt1", "the matrix reloaded");
+        index.put(renamed);
+        index.put(doc("tt2", "the matrix revolutions"));
+        index.remove("tt2");
+
+        // Assert
+        assertThat(index.search("reloaded").get(), contains(renamed));
+        assertThat(index.search("revolutions").get(), empty());
+    }
+
+    @Test
+    public void writesDuringRebuildShouldNotBeLost() {
+        // Arrange
+        Actor joe = doc("nm1", "joe contoso");
+        Actor jane = doc("nm2", "jane contoso");
+        index.rebuild(() -> Arrays.asList(joe, jane));
+
+        // Act
+        Actor renamed = doc("nm1", "joe fabrikam");
+        Actor bob = doc("nm3", "bob contoso");
+        index.rebuild(() -> {
+            // read before the writes below, which the new index must still reflect
+            List<Actor> loaded = Arrays.asList(joe, jane);
+            index.put(renamed);
+            index.remove("nm2");
+            index.put(bob);
+            return loaded;
+        });
+
+        // Assert
+        assertThat(index.search("contoso").get(), contains(bob));
+        assertThat(index.search("fabrikam").get(), contains(renamed));
+    }
+}
@@ -0,0 +1,104 @@
+package com.microsoft.azure.helium.app.search;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * RankingIndexTest
+ */
+public class RankingIndexTest {
+
+    private RankingIndex<String[]> index;
+
+    // id, score and bucket
+    private static String[] doc(String id, int score, String bucket) {
+        return new String[] { id, String.valueOf(score), bucket };
+    }
+
+    private static List<String> ids(List<String[]> docs) {
+        return docs.stream().map(doc -> doc[0]).collect(Collectors.toList());
+    }
+
+    @Before
+    public void setupIndex() {
+        index = new RankingIndex<>(doc -> doc[0], doc -> Arrays.asList("all", doc[2]),
+                Comparator.<String[]>comparingInt(doc -> Integer.parseInt(doc[1])).reversed());
+    }
+
+    @Test
+    public void coldIndexShouldNotAnswerLookups() {
+        // Assert
+        assertFalse(index.top("all", 10).isPresent());
+    }
+
+    @Test
+    public void topShouldReturnHighestRankedOfBucket() {
+        // Arrange
+        index.rebuild(() -> Arrays.asList(doc("a", 1, "x"), doc("b", 3, "y"), doc("c", 2, "x"), doc("d", 2, "x")));
+
+        // Act & Assert
+        assertThat(ids(index.top("all", 3).get()), contains("b", "c", "d"));
+        assertThat(ids(index.top("x", 10).get()), contains("c", "d", "a"));
+        assertThat(index.top("z", 10).get(), empty());
+    }
+
+    @Test
+    public void putAndRemoveShouldUpdateRankings() {
+        // Arrange
+        index.rebuild(() -> Arrays.asList(doc("a", 1, "x"), doc("b", 3, "y")));
+
+        // Act
+        index.put(doc("a", 5, "y"));
+        index.remove("b");
+        index.put(doc("c", 4, "x"));
+
+        // Assert
+        assertThat(ids(index.top("all", 10).get()), contains("a", "c"));
+        assertThat(ids(index.top("y", 10).get()), contains("a"));
+        assertThat(ids(index.top("x", 10).get()), contains("c"));
+    }
+
+    @Test
+    public void rebuildShouldReplaceRankings() {
+        // Arrange
+        index.rebuild(() -> Collections.singletonList(doc("a", 1, "x")));
+
+        // Act
+        index.rebuild(() -> Collections.singletonList(doc("b", 1, "y")));
+
+        // Assert
+        assertThat(ids(index.top("all", 10).get()), contains("b"));
+        assertThat(index.top("x", 10).get(), empty());
+    }
+
+    @Test
+    public void writesDuringRebuildShouldNotBeLost() {
+        // Arrange
+        index.rebuild(() -> Arrays.asList(doc("a", 1, "x"), doc("b", 3, "y")));
+
+        // Act
+        index.rebuild(() -> {
+            // read before the writes below, which the new rankings must still reflect
+            List<String[]> loaded = Arrays.asList(doc("a", 1, "x"), doc("b", 3, "y"));
+            index.remove("b");
+            index.put(doc("a", 5, "y"));
+            return loaded;
+        });
+
+        // Assert
+        assertThat(ids(index.top("all", 10).get()), contains("a"));
+        assertThat(ids(index.top("y", 10).get()), contains("a"));
+        assertThat(index.top("x", 10).get(), empty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.microsoft.azure.helium.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.microsoft.azure.documentdb.ConnectionMode;
+import com.microsoft.azure.documentdb.ConnectionPolicy;
+import com.microsoft.azure.documentdb.ConsistencyLevel;
+
+import org.junit.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+/**
+ * CosmosDbPropertiesTest
+ */
+public class CosmosDbPropertiesTest {
+
+    @Test
+    public void shouldBuildConnectionPolicyFromProperties() {
+        // Arrange
+        Map<String, String> source = new HashMap<>();
+        source.put("helium.cosmosdb.connection-mode", "direct-https");
+        source.put("helium.cosmosdb.max-pool-size", "400");
+        source.put("helium.cosmosdb.idle-timeout", "2m");
+        source.put("helium.cosmosdb.request-timeout", "5");
+        source.put("helium.cosmosdb.consistency-level", "Eventual");
+
+        // Act
+        CosmosDbProperties properties = new Binder(new MapConfigurationPropertySource(source))
+                .bind("helium.cosmosdb", CosmosDbProperties.class).get();
+        ConnectionPolicy policy = properties.toConnectionPolicy();
+
+        // Assert
+        assertEquals(ConnectionMode.DirectHttps, policy.getConnectionMode());
+        assertEquals(400, policy.getMaxPoolSize());
+        assertEquals(120, policy.getIdleConnectionTimeout());
+        assertEquals(5, policy.getRequestTimeout());
+        assertEquals(9, policy.getRetryOptions().getMaxRetryAttemptsOnThrottledRequests());
+        assertEquals(ConsistencyLevel.Eventual, properties.getConsistencyLevel());
+    }
+
+    @Test
+    public void shouldDefaultToAccountConsistencyLevel() {
+        // Arrange
+        Map<String, String> source = new HashMap<>();
+        source.put("helium.cosmosdb.consistency-level", "");
+
+        // Act
+        CosmosDbProperties properties = new Binder(new MapConfigurationPropertySource(source))
+                .bind("helium.cosmosdb", CosmosDbProperties.class).orElseGet(CosmosDbProperties::new);
+
+        // Assert
+        assertNull(properties.getConsistencyLevel());
+        assertEquals(ConnectionMode.Gateway, properties.toConnectionPolicy().getConnectionMode());
+    }
+}
@@ -0,0 +1,37 @@
+package com.microsoft.azure.helium.config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.microsoft.azure.helium.app.genre.GenresCache;
+import com.microsoft.azure.helium.app.movie.MoviesController;
+
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * LazyInitializationConfigTest
+ */
+public class LazyInitializationConfigTest {
+
+    @Test
+    public void shouldOnlyCreateApplicationBeansWithoutScheduledTasksLazily() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("moviesController", new RootBeanDefinition(MoviesController.class));
+        beanFactory.registerBeanDefinition("genresCache", new RootBeanDefinition(GenresCache.class));
+        RootBeanDefinition infrastructure = new RootBeanDefinition(Object.class);
+        infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        beanFactory.registerBeanDefinition("infrastructure", infrastructure);
+
+        // Act
+        LazyInitializationConfig.lazyInitialization().postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertTrue(beanFactory.getBeanDefinition("moviesController").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("genresCache").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("infrastructure").isLazyInit());
+    }
+}
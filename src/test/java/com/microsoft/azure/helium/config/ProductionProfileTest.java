@@ -0,0 +1,73 @@
+package com.microsoft.azure.helium.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.microsoft.azure.helium.Application;
+import com.microsoft.azure.helium.metrics.StartupPhases;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import springfox.documentation.spring.web.plugins.Docket;
+
+/**
+ * ProductionProfileTest
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = Application.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "prod", "inmemory" })
+public class ProductionProfileTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void shouldStartWithoutSwaggerAndWithLazyControllers() throws Exception {
+        // Assert
+        assertEquals(0, context.getBeanNamesForType(Docket.class).length);
+        assertTrue(context.getBeanFactory().getBeanDefinition("moviesController").isLazyInit());
+        assertFalse(context.getBeanFactory().getBeanDefinition("genresCache").isLazyInit());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/actors/nm0000206"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Keanu Reeves"));
+    }
+
+    @Test
+    public void shouldNotExposeTheShutdownEndpoint() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/shutdown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldPublishStartupPhases() {
+        // Assert
+        assertNotNull(registry.find(StartupPhases.STARTUP_GAUGE).tag("phase", "beans").timeGauge());
+        assertNotNull(registry.find(StartupPhases.STARTUP_GAUGE).tag("phase", "jvm").timeGauge());
+    }
+}
@@ -0,0 +1,53 @@
+package com.microsoft.azure.helium.cosmos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.microsoft.azure.documentdb.DocumentClient;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ConnectionPoolMetricsTest
+ */
+public class ConnectionPoolMetricsTest {
+
+    @Test
+    public void shouldPublishTheStateOfTheClientConnectionPool() {
+        // Arrange
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(42);
+        DocumentClient client = mock(DocumentClient.class);
+        ReflectionTestUtils.setField(client, "poolingHttpClientConnectionManager", pool);
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        new ConnectionPoolMetrics(client).bindTo(registry);
+
+        // Assert
+        assertEquals(42, registry.get("cosmosdb.connections.max").gauge().value(), 0);
+        assertEquals(0, registry.get("cosmosdb.connections").tag("state", "leased").gauge().value(), 0);
+        assertEquals(0, registry.get("cosmosdb.connections").tag("state", "pending").gauge().value(), 0);
+    }
+
+    @Test
+    public void shouldPublishNothingWhenTheClientHasNoPoolField() {
+        // Arrange
+        DocumentClient client = mock(DocumentClient.class);
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        new ConnectionPoolMetrics(client, "missingConnectionManager").bindTo(registry);
+
+        // Assert
+        assertTrue(registry.find("cosmosdb.connections").meters().isEmpty());
+        assertNull(registry.find("cosmosdb.connections.max").gauge());
+    }
+}
@@ -36,5 +36,10 @@ public class CosmosDbHealthIndicatorIT {
             .perform(get("/healthz/cosmosDb"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.status", is("UP")));
+
+        this.mockMvc
+            .perform(get("/healthz/liveness"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status", is("UP")));
     }
 }
\ No newline at end of file
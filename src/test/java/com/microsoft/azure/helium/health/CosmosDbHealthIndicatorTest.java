@@ -1,9 +1,12 @@
 package com.microsoft.azure.helium.health;
 
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.microsoft.azure.helium.utils.IntegrationTestsUtils;
 
@@ -15,6 +18,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.actuate.health.Health.Builder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * CosmosDbHealthIndicatorTest
@@ -55,6 +59,41 @@ public class CosmosDbHealthIndicatorTest {
         assertThat(health.getStatus(), is(Status.DOWN));
     }
 
+    @Test
+    public void healthCheckIndicatorShouldServeCachedResultWithLatencyAndAge() throws Exception {
+        // Arrange
+        Mockito.doReturn(getRandomHttpSuccessCode()).when(indicator).getStatusCode(anyString());
+        indicator.refresh();
+
+        // Act
+        Builder builder = new Builder();
+        indicator.doHealthCheck(builder);
+        indicator.doHealthCheck(new Builder());
+        Health health = builder.build();
+
+        // Assert
+        assertThat(health.getStatus(), is(Status.UP));
+        assertThat(health.getDetails(), hasKey("latencyMs"));
+        assertThat(health.getDetails(), hasKey("ageMs"));
+        verify(indicator, times(1)).getStatusCode(anyString());
+    }
+
+    @Test
+    public void healthCheckIndicatorShouldReturnDownWhenLastCheckIsStale() throws Exception {
+        // Arrange
+        Mockito.doReturn(getRandomHttpSuccessCode()).when(indicator).getStatusCode(anyString());
+        ReflectionTestUtils.setField(indicator, "maxAge", -1L);
+        indicator.refresh();
+
+        // Act
+        Builder builder = new Builder();
+        indicator.doHealthCheck(builder);
+        Health health = builder.build();
+
+        // Assert
+        assertThat(health.getStatus(), is(Status.DOWN));
+    }
+
     private int getRandomHttpSuccessCode(){
         return IntegrationTestsUtils.getRandomBetween(200, 204);
     }
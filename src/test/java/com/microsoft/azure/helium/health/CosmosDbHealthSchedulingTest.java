@@ -0,0 +1,102 @@
+package com.microsoft.azure.helium.health;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.azure.documentdb.DocumentClient;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * CosmosDbHealthSchedulingTest
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = CosmosDbHealthSchedulingTest.SchedulingConfig.class)
+@TestPropertySource(properties = { "azure.cosmosdb.database=database", "helium.health.cosmosdb.interval=20" })
+public class CosmosDbHealthSchedulingTest {
+
+    @Configuration
+    @EnableScheduling
+    static class SchedulingConfig {
+
+        @Bean
+        public SlowTask slowTask() {
+            return new SlowTask();
+        }
+
+        @Bean
+        public CountingIndicator indicator() {
+            return new CountingIndicator();
+        }
+    }
+
+    /**
+     * Stands in for a search index rebuild that holds the scheduler thread.
+     */
+    static class SlowTask {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 1000)
+        public void rebuild() throws InterruptedException {
+            started.countDown();
+            release.await();
+        }
+    }
+
+    static class CountingIndicator extends CosmosDbHealthIndicator {
+
+        final CountDownLatch checks = new CountDownLatch(3);
+
+        CountingIndicator() {
+            super("database");
+        }
+
+        @Override
+        protected int getStatusCode(String dbName) {
+            checks.countDown();
+            return 200;
+        }
+    }
+
+    @MockBean
+    private DocumentClient documentClient;
+
+    @Autowired
+    private SlowTask slowTask;
+
+    @Autowired
+    private CountingIndicator indicator;
+
+    @After
+    public void releaseSlowTask() {
+        slowTask.release.countDown();
+    }
+
+    @Test
+    public void checksShouldKeepRunningWhileAnotherScheduledTaskIsSlow() throws Exception {
+        // Arrange
+        assertTrue(slowTask.started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertTrue(indicator.checks.await(5, TimeUnit.SECONDS));
+        assertThat(indicator.health().getStatus(), is(Status.UP));
+    }
+}
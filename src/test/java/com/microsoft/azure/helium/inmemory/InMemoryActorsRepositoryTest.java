@@ -0,0 +1,106 @@
+package com.microsoft.azure.helium.inmemory;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.microsoft.azure.helium.app.Pages;
+import com.microsoft.azure.helium.app.actor.Actor;
+import com.microsoft.azure.helium.app.actor.ActorsUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+/**
+ * InMemoryActorsRepositoryTest
+ */
+public class InMemoryActorsRepositoryTest {
+
+    private InMemoryActorsRepository repository;
+
+    private Actor joe;
+    private Actor jane;
+    private Actor bob;
+
+    @Before
+    public void setupRepository() {
+        repository = new InMemoryActorsRepository(0, 0);
+        joe = ActorsUtils.createActorWithIdAndName("nm1", "Joe Contoso");
+        jane = ActorsUtils.createActorWithIdAndName("nm2", "Jane Contoso");
+        bob = ActorsUtils.createActorWithIdAndName("nm3", "Bob Fabrikam");
+        repository.saveAll(Arrays.asList(bob, jane, joe));
+    }
+
+    @Test
+    public void derivedQueriesShouldMatchLikeCosmosDb() {
+        // Act & Assert
+        assertThat(repository.findByActorId("nm2"), contains(jane));
+        assertThat(repository.findByTextSearchContaining("contoso"), contains(joe, jane));
+        assertThat(repository.findByTextSearchContaining("Contoso"), empty());
+        assertTrue(repository.pointReadByActorId("nm3").isPresent());
+        assertFalse(repository.pointReadByActorId("nm4").isPresent());
+    }
+
+    @Test
+    public void pagesShouldResumeFromTheirContinuation() {
+        // Act
+        Page<Actor> first = repository.findAll(Pages.request(2, null));
+        Page<Actor> second = repository.findAll(Pages.request(2, Pages.nextContinuation(first)));
+
+        // Assert
+        assertThat(first.getContent(), contains(joe, jane));
+        assertThat(second.getContent(), contains(bob));
+        assertNull(Pages.nextContinuation(second));
+    }
+
+    @Test
+    public void forEachPageShouldHandOutEveryMatch() {
+        // Arrange
+        List<List<Actor>> pages = new ArrayList<>();
+
+        // Act
+        repository.forEachPage(2, pages::add);
+
+        // Assert
+        assertEquals(2, pages.size());
+        assertThat(pages.get(0), contains(joe, jane));
+        assertThat(pages.get(1), contains(bob));
+    }
+
+    @Test
+    public void callsShouldWaitForTheConfiguredLatency() {
+        // Arrange
+        InMemoryActorsRepository slow = new InMemoryActorsRepository(50, 0);
+
+        // Act
+        long start = System.nanoTime();
+        slow.findByTextSearchContaining("contoso");
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        // Assert
+        assertTrue(elapsedMillis >= 50);
+    }
+
+    @Test
+    public void findAllShouldSortByEveryOrder() {
+        // Arrange
+        Actor ann = ActorsUtils.createActorWithIdAndName("nm0", "Joe Contoso");
+        repository.save(ann);
+
+        // Act & Assert
+        assertThat(repository.findAll(Sort.by("name")), contains(bob, jane, ann, joe));
+        assertThat(repository.findAll(Sort.by(Sort.Order.desc("name"), Sort.Order.desc("id"))), contains(joe, ann, jane, bob));
+        assertThat(repository.findAll(Sort.by(Sort.Order.asc("name").ignoreCase())), contains(bob, jane, ann, joe));
+        assertThat(repository.findAll(Sort.unsorted()), contains(ann, joe, jane, bob));
+    }
+}
@@ -0,0 +1,158 @@
+package com.microsoft.azure.helium.inmemory;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.microsoft.azure.helium.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.azure.helium.app.Constants;
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.app.movie.MoviesRepository;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * InMemoryProfileTest
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = Application.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("inmemory")
+public class InMemoryProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MoviesRepository repository;
+
+    @Test
+    public void apiShouldServeTheSeedDatasetWithoutCosmosDb() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/actors/nm0000206"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Keanu Reeves"));
+        mockMvc.perform(get("/api/movies/").param("q", "matrix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/api/movies/").param("q", "matrix").param("fields", "movieId,rating").param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieId").value("tt0133093"))
+                .andExpect(jsonPath("$[0].roles").doesNotExist());
+        mockMvc.perform(get("/api/movies/").param("fields", "movieId,roles").param("expand", "roles"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasItem("Sci-Fi")));
+    }
+
+    @Test
+    public void apiShouldAnswerConditionalGetsWithNotModified() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/api/movies/tt0133093"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/tt0133093").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void updateShouldChangeTheListEtagEvenWithAStaleEtagInTheBody() throws Exception {
+        // Arrange
+        String listEtag = mockMvc.perform(get("/api/movies/").param("q", "matrix"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String stale = repository.findById("tt0133093").get().getEtag();
+        ObjectNode body = (ObjectNode) mapper.readTree(mockMvc.perform(get("/api/movies/tt0133093"))
+                .andReturn().getResponse().getContentAsString());
+        body.put("_etag", stale);
+
+        // Act
+        mockMvc.perform(put("/api/movies/tt0133093").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertNotEquals(stale, repository.findById("tt0133093").get().getEtag());
+        mockMvc.perform(get("/api/movies/").param("q", "matrix").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void updateShouldRejectABodyForAnotherMovie() throws Exception {
+        // Arrange
+        ObjectNode body = (ObjectNode) mapper.readTree(mockMvc.perform(get("/api/movies/tt0133093"))
+                .andReturn().getResponse().getContentAsString());
+        body.put("id", "tt0000001").put("movieId", "tt0000001");
+
+        // Act & Assert
+        mockMvc.perform(put("/api/movies/tt0133093").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isBadRequest());
+        assertFalse(repository.existsById("tt0000001"));
+    }
+
+    @Test
+    public void requestBodiesShouldNotSetTheEtag() throws Exception {
+        // Act
+        Movie movie = mapper.readValue("{\"movieId\":\"tt0133093\",\"_etag\":\"stale\"}", Movie.class);
+
+        // Assert
+        assertNull(movie.getEtag());
+    }
+
+    @Test
+    public void apiShouldServeTopRatedMovies() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/top").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].movieId", contains("tt0110912", "tt1375666")));
+        mockMvc.perform(get("/api/movies/top").param("genre", "sci-fi").param("year", "1999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].movieId", contains("tt0133093")));
+        mockMvc.perform(get("/api/movies/top").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void apiShouldFilterMoviesAndCountFacets() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/movies/").param("genre", "Action").param("minRating", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].movieId", contains("tt0133093", "tt1375666")));
+        mockMvc.perform(get("/api/movies/").param("minYear", "1990").param("maxYear", "1999").param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constants.CONTINUATION_HEADER, "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/api/movies/facets").param("genre", "Sci-Fi"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.facets.genres.Action").value(3))
+                .andExpect(jsonPath("$.facets.genres.Adventure").value(1))
+                .andExpect(jsonPath("$.facets.year.1999").value(1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.microsoft.azure.helium.keyvault;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * KeyVaultSecretsTest
+ */
+public class KeyVaultSecretsTest {
+
+    @Test
+    public void shouldFetchSecretsInParallel() {
+        // Arrange
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Function<String, String> fetcher = name -> {
+            // only returns if every fetch is in flight at the same time
+            allStarted.countDown();
+            await(allStarted);
+            return name.toUpperCase();
+        };
+        KeyVaultSecrets secrets = new KeyVaultSecrets(fetcher, () -> Arrays.asList("a", "b", "c"), 3, 60000);
+
+        // Act
+        secrets.start(60000);
+
+        // Assert
+        assertEquals("A", secrets.get("a"));
+        assertEquals("B", secrets.get("b"));
+        assertEquals("C", secrets.get("c"));
+        assertEquals(3, secrets.getLatencies().size());
+    }
+
+    @Test
+    public void shouldServeSecretsFromMemory() {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        KeyVaultSecrets secrets = new KeyVaultSecrets(name -> "value" + fetches.incrementAndGet(), () -> Arrays.asList("key"), 1, 60000);
+        secrets.start(60000);
+
+        // Act
+        String first = secrets.get("key");
+        String second = secrets.get("key");
+
+        // Assert
+        assertEquals("value1", first);
+        assertEquals("value1", second);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void shouldKeepValueWhenRefreshFails() throws Exception {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        KeyVaultSecrets secrets = new KeyVaultSecrets(name -> {
+            if (fetches.incrementAndGet() > 1) {
+                refreshed.countDown();
+                throw new IllegalStateException("Key Vault unavailable");
+            }
+            return "value";
+        }, () -> Arrays.asList("key"), 1, 60000);
+        secrets.start(60000);
+        secrets.get("key");
+
+        // Act
+        secrets.refresh();
+
+        // Assert
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals("value", secrets.get("key"));
+    }
+
+    @Test
+    public void propertySourceShouldOnlyResolveSecretsInTheVault() {
+        // Arrange
+        AtomicInteger fetches = new AtomicInteger();
+        KeyVaultSecrets secrets = new KeyVaultSecrets(name -> {
+            fetches.incrementAndGet();
+            return "secret";
+        }, () -> Arrays.asList("azure-cosmosdb-key"), 1, 60000);
+        secrets.start(60000);
+        KeyVaultSecretsPropertySource source = new KeyVaultSecretsPropertySource("azurekv", secrets);
+
+        // Act & Assert
+        assertEquals("secret", source.getProperty("azure.cosmosdb.key"));
+        assertNull(source.getProperty("server.port"));
+        assertEquals(1, fetches.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Secrets were fetched one at a time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
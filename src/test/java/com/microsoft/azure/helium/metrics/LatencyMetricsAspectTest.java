@@ -0,0 +1,88 @@
+package com.microsoft.azure.helium.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import com.microsoft.azure.helium.app.genre.GenresRepository;
+import com.microsoft.azure.helium.app.genre.GenresService;
+import com.microsoft.azure.helium.app.genre.GenresUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * LatencyMetricsAspectTest
+ */
+public class LatencyMetricsAspectTest {
+
+    private MeterRegistry registry;
+    private GenresRepository repository;
+    private GenresService service;
+
+    @Before
+    public void setupProxies() {
+        registry = new SimpleMeterRegistry();
+        LatencyMetricsAspect aspect = new LatencyMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "registry", registry);
+
+        repository = mock(GenresRepository.class);
+        AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(repository);
+        repositoryFactory.addAspect(aspect);
+
+        GenresService target = new GenresService();
+        ReflectionTestUtils.setField(target, "repository", repositoryFactory.getProxy());
+        AspectJProxyFactory serviceFactory = new AspectJProxyFactory(target);
+        serviceFactory.setProxyTargetClass(true);
+        serviceFactory.addAspect(aspect);
+        service = serviceFactory.getProxy();
+    }
+
+    @Test
+    public void callsShouldBeTimedByEntityOperationAndOutcome() {
+        // Arrange
+        when(repository.findAll()).thenReturn(GenresUtils.getGenresFromStrings(Arrays.asList("Comedy")));
+
+        // Act
+        service.getAllGenres();
+
+        // Assert
+        assertEquals(1, timerCount(LatencyMetricsAspect.SERVICE_TIMER, "getAllGenres", "success"));
+        assertEquals(1, timerCount(LatencyMetricsAspect.REPOSITORY_TIMER, "findAll", "success"));
+    }
+
+    @Test
+    public void failedCallsShouldBeTimedAsErrors() {
+        // Arrange
+        when(repository.findAll()).thenThrow(new IllegalStateException("throttled"));
+
+        // Act
+        try {
+            service.getAllGenres();
+            fail("the exception of the repository should be rethrown");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        // Assert
+        assertEquals(1, timerCount(LatencyMetricsAspect.SERVICE_TIMER, "getAllGenres", "error"));
+        assertEquals(1, timerCount(LatencyMetricsAspect.REPOSITORY_TIMER, "findAll", "error"));
+    }
+
+    private long timerCount(String name, String operation, String outcome) {
+        return registry.get(name)
+                .tag("entity", "genre")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
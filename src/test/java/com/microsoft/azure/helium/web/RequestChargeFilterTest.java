@@ -0,0 +1,101 @@
+package com.microsoft.azure.helium.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * RequestChargeFilterTest
+ */
+public class RequestChargeFilterTest {
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private MeterRegistry registry;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class ChargingController {
+
+        @GetMapping("/api/things/{id}")
+        public List<String> getThing(@PathVariable("id") String id) {
+            RequestCharge.record(1.0);
+            RequestCharge.record(1.5);
+            return Collections.singletonList(id);
+        }
+
+        @GetMapping("/api/async/{id}")
+        public CompletableFuture<List<String>> getThingAsync(@PathVariable("id") String id) {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestCharge.record(4.0);
+                return Collections.singletonList(id);
+            }, task -> executor.execute(RequestCharge.wrap(task)));
+        }
+    }
+
+    @Before
+    public void setupMockMvc() {
+        registry = new SimpleMeterRegistry();
+        mockMvc = MockMvcBuilders.standaloneSetup(new ChargingController())
+                .setControllerAdvice(new RequestChargeAdvice())
+                .addFilters(new RequestChargeFilter(registry))
+                .build();
+    }
+
+    @After
+    public void clearThread() {
+        RequestCharge.detach();
+    }
+
+    @Test
+    public void chargeShouldBeReturnedInHeaderAndRecordedPerEndpoint() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/things/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(RequestCharge.HEADER, "2.50"));
+        mockMvc.perform(get("/api/things/2"));
+
+        // Assert
+        DistributionSummary summary = registry.get(RequestChargeFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/things/{id}")
+                .summary();
+        assertEquals(2, summary.count());
+        assertEquals(5.0, summary.totalAmount(), 0.001);
+    }
+
+    @Test
+    public void chargeShouldFollowRequestToOtherThreads() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/async/1")).andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(RequestCharge.HEADER, "4.00"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.microsoft.azure.helium.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.microsoft.azure.helium.Application;
+import com.microsoft.azure.helium.app.NdJson;
+import com.microsoft.azure.helium.app.movie.Movie;
+import com.microsoft.azure.helium.app.movie.MoviesService;
+import com.microsoft.azure.helium.app.movie.MoviesUtils;
+import com.microsoft.azure.helium.cosmos.RequestCharge;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * StreamedRequestChargeTest
+ *
+ * Streamed responses are written on the application task executor, so their
+ * charge only reaches the request if the executor carries it over.
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = Application.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("inmemory")
+public class StreamedRequestChargeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @MockBean
+    private MoviesService service;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamedResponsesShouldRecordTheChargeOfTheirPages() throws Exception {
+        // Arrange
+        Movie movie = MoviesUtils.createMovieWithId("tt0133093");
+        doAnswer(invocation -> {
+            Consumer<List<Movie>> consumer = invocation.getArgument(1);
+            for (int page = 0; page < 2; page++) {
+                RequestCharge.record(2.5);
+                consumer.accept(Collections.singletonList(movie));
+            }
+            return null;
+        }).when(service).forEachMoviePage(any(Optional.class), any(Consumer.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/movies/").accept(NdJson.MEDIA_TYPE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // Assert
+        DistributionSummary summary = registry.get(RequestChargeFilter.METRIC_NAME)
+                .tag("uri", "/api/movies/")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(5.0, summary.totalAmount(), 0.001);
+    }
+}